@@ -0,0 +1,85 @@
+package com.sohaib.trackmystacks.bench;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.sohaib.trackmystacks.model.Expense;
+import com.sohaib.trackmystacks.model.MoneyAccumulator;
+
+/**
+ * Summing expense amounts in memory, the way totals are built whenever a
+ * list of Expense entities is already loaded. streamReduce was the idiom
+ * used across the code base; loop is the same arithmetic without the stream;
+ * longCents adds the unscaled values of the two-decimal amounts as unchecked
+ * longs, a lower bound; and moneyAccumulator is what aggregation code uses
+ * now (Money / MoneyAccumulator), overflow-checked longs with one allocation
+ * for the result.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ExpenseSumBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    private int expenses;
+
+    private List<Expense> rows;
+    private long[] cents;
+
+    @Setup
+    public void setUp() {
+        rows = SyntheticData.expenses(SyntheticData.users(10), expenses);
+        cents = new long[rows.size()];
+        for (int i = 0; i < cents.length; i++) {
+            cents[i] = rows.get(i).getAmount().unscaledValue().longValueExact();
+        }
+    }
+
+    @Benchmark
+    public BigDecimal streamReduce() {
+        return rows.stream().map(Expense::getAmount).reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
+
+    @Benchmark
+    public BigDecimal loop() {
+        BigDecimal total = BigDecimal.ZERO;
+        for (Expense e : rows) {
+            total = total.add(e.getAmount());
+        }
+        return total;
+    }
+
+    @Benchmark
+    public BigDecimal longCents() {
+        long total = 0;
+        for (long c : cents) {
+            total += c;
+        }
+        return BigDecimal.valueOf(total, 2);
+    }
+
+    @Benchmark
+    public BigDecimal moneyAccumulator() {
+        MoneyAccumulator total = new MoneyAccumulator();
+        for (long c : cents) {
+            total.addCents(c);
+        }
+        return total.total().toBigDecimal();
+    }
+}
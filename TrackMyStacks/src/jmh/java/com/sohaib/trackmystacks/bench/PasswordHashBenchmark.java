@@ -0,0 +1,53 @@
+package com.sohaib.trackmystacks.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+/**
+ * Checking a BCrypt password hash, nearly all of a login's CPU time, at each
+ * cost factor, on one thread per core: the score is the logins/sec the host's
+ * cores can verify at that cost, the number to compare with
+ * trackmystacks.password-hash.min-logins-per-sec. For the whole login
+ * request over HTTP, use the load generator's --scenario=logins.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Threads(Threads.MAX)
+@Fork(1)
+@Warmup(iterations = 2, time = 3)
+@Measurement(iterations = 3, time = 3)
+public class PasswordHashBenchmark {
+
+    private static final String PASSWORD = "correct horse battery staple";
+
+    @Param({"10", "11", "12", "13"})
+    private int cost;
+
+    private BCryptPasswordEncoder encoder;
+    private String hash;
+
+    @Setup
+    public void setUp() {
+        encoder = new BCryptPasswordEncoder(cost);
+        hash = encoder.encode(PASSWORD);
+    }
+
+    @Benchmark
+    public boolean verify() {
+        return encoder.matches(PASSWORD, hash);
+    }
+}
@@ -0,0 +1,140 @@
+package com.sohaib.trackmystacks.bench;
+
+import java.lang.reflect.Field;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.util.ReflectionUtils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.sohaib.trackmystacks.model.Category;
+import com.sohaib.trackmystacks.model.Expense;
+import com.sohaib.trackmystacks.model.MonthlySummary;
+import com.sohaib.trackmystacks.model.Paycheck;
+import com.sohaib.trackmystacks.model.User;
+
+/**
+ * Reproducible in-memory datasets for the JMH benchmarks.
+ *
+ * Every generator uses a fixed seed, so a given size always produces the same
+ * rows and runs on different commits compare like with like. Entities get ids
+ * as if they had been loaded from the database; nothing here touches one.
+ */
+public final class SyntheticData {
+
+    public static final long SEED = 42;
+
+    public static final List<String> CATEGORIES = List.of(
+            "Food", "Transport", "Entertainment", "Utilities", "Healthcare", "Shopping", "Education", "Other");
+
+    private static final LocalDateTime CREATED = LocalDateTime.of(2026, 1, 1, 12, 0);
+    private static final LocalDate FIRST_DAY = LocalDate.of(2020, 1, 1);
+
+    private SyntheticData() {}
+
+    public static List<User> users(int count) {
+        List<User> users = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            User user = new User("user" + i, "user" + i + "@example.com",
+                    "{bcrypt}$2a$10$abcdefghijklmnopqrstuuE5n2Q8u1Lw3yHj0vYk2pQ9s7a6b5c4d", i == 1);
+            user.setId((long) i);
+            user.setCreatedAt(CREATED);
+            users.add(user);
+        }
+        return users;
+    }
+
+    public static List<Category> categories() {
+        List<Category> categories = new ArrayList<>(CATEGORIES.size());
+        for (int i = 0; i < CATEGORIES.size(); i++) {
+            Category category = new Category(CATEGORIES.get(i));
+            category.setId((long) i + 1);
+            category.setCreatedAt(CREATED);
+            categories.add(category);
+        }
+        return categories;
+    }
+
+    /**
+     * {@code count} expenses spread over six years, amounts 0.00 – 999.99 with two decimals like the column,
+     * each in one of the {@link #categories()}.
+     */
+    public static List<Expense> expenses(List<User> owners, int count) {
+        Random random = new Random(SEED);
+        List<Category> categories = categories();
+        List<Expense> expenses = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            Expense expense = new Expense(
+                    owners.get(random.nextInt(owners.size())),
+                    BigDecimal.valueOf(random.nextInt(100_000), 2),
+                    categories.get(random.nextInt(categories.size())),
+                    "Expense " + i,
+                    FIRST_DAY.plusDays(random.nextInt(6 * 365)),
+                    random.nextInt(10) == 0);
+            expense.setId((long) i);
+            expense.setCreatedAt(CREATED);
+            expenses.add(expense);
+        }
+        return expenses;
+    }
+
+    /** One paycheck per user for each of the {@code months} months up to January 2026. */
+    public static List<Paycheck> paychecks(List<User> owners, int months) {
+        Random random = new Random(SEED + 1);
+        List<Paycheck> paychecks = new ArrayList<>(owners.size() * months);
+        long id = 1;
+        for (User owner : owners) {
+            for (int m = 0; m < months; m++) {
+                Paycheck paycheck = new Paycheck(owner, BigDecimal.valueOf(300_000 + random.nextInt(200_000), 2),
+                        LocalDate.of(2026, 1, 1).minusMonths(m), "Salary");
+                paycheck.setId(id++);
+                paycheck.setCreatedAt(CREATED);
+                paychecks.add(paycheck);
+            }
+        }
+        return paychecks;
+    }
+
+    /**
+     * Rollup rows for the {@code months} months ending with the current one, as
+     * MonthlySummaryService.getSummaries would return them. Every fifth month is
+     * missing, like a month with neither income nor expenses.
+     */
+    public static List<MonthlySummary> monthlySummaries(User user, int months) {
+        Random random = new Random(SEED + 2);
+        LocalDate thisMonth = LocalDate.now().withDayOfMonth(1);
+        List<MonthlySummary> rows = new ArrayList<>(months);
+        for (int m = months - 1; m >= 0; m--) {
+            if (m % 5 == 4) {
+                continue;
+            }
+            rows.add(new MonthlySummary(user, thisMonth.minusMonths(m),
+                    BigDecimal.valueOf(300_000 + random.nextInt(200_000), 2),
+                    BigDecimal.valueOf(random.nextInt(400_000), 2)));
+        }
+        return rows;
+    }
+
+    /** A JSON mapper set up like the application's (Spring defaults, ISO dates). */
+    public static ObjectMapper objectMapper() {
+        return Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+    }
+
+    /** Sets an @Autowired field on a service created outside Spring. */
+    public static void inject(Object target, String fieldName, Object value) {
+        Field field = ReflectionUtils.findField(target.getClass(), fieldName);
+        if (field == null) {
+            throw new IllegalArgumentException(target.getClass().getSimpleName() + " has no field " + fieldName);
+        }
+        ReflectionUtils.makeAccessible(field);
+        ReflectionUtils.setField(field, target, value);
+    }
+}
@@ -0,0 +1,169 @@
+package com.sohaib.trackmystacks.service;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sohaib.trackmystacks.bench.SyntheticData;
+import com.sohaib.trackmystacks.dto.BackupData;
+
+/**
+ * Size and speed of a large backup file in each BackupCodec.Format, the way
+ * the streaming export and import handle one: the document is generated and
+ * written to a temp file one expense at a time (never held in memory), and
+ * read back binding one ExpenseBackup at a time. Each call is one whole file,
+ * so this runs in single-shot mode. The file size of each format is printed
+ * once per trial.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(value = 1, jvmArgs = "-Xmx1g")
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+public class BackupFileBenchmark {
+
+    private static final int USERS = 50;
+
+    @Param({"200000", "2000000"})
+    private int expenses;
+
+    @Param({"JSON", "JSON_GZIP", "SMILE"})
+    private BackupCodec.Format format;
+
+    private BackupCodec codec;
+    private ObjectMapper objectMapper;
+    // written once in setUp and read by readFile; writeFile overwrites its own scratch file
+    private Path file;
+    private Path scratch;
+
+    @Setup
+    public void setUp() throws IOException {
+        objectMapper = SyntheticData.objectMapper();
+        codec = new BackupCodec();
+        SyntheticData.inject(codec, "objectMapper", objectMapper);
+        codec.init();
+
+        file = Files.createTempFile("tms-bench-", "." + format.getExtension());
+        scratch = Files.createTempFile("tms-bench-", "." + format.getExtension());
+        write(file);
+        System.out.printf("%n%s, %,d expenses: %,d bytes%n", format.getExtension(), expenses, Files.size(file));
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+        Files.deleteIfExists(scratch);
+    }
+
+    /** Encoding a full export to disk, as BackupService.exportTo does. */
+    @Benchmark
+    public long writeFile() throws IOException {
+        write(scratch);
+        return Files.size(scratch);
+    }
+
+    /** Decoding it again, as BackupService.importFrom does. */
+    @Benchmark
+    public long readFile() throws IOException {
+        long count = 0;
+        try (InputStream in = Files.newInputStream(file); JsonParser parser = codec.createParser(in)) {
+            parser.nextToken();
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                parser.nextToken();
+                if (field.equals("expenses")) {
+                    while (parser.nextToken() != JsonToken.END_ARRAY) {
+                        objectMapper.readValue(parser, BackupData.ExpenseBackup.class);
+                        count++;
+                    }
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        }
+        if (count != expenses) {
+            throw new IllegalStateException(format + ": read back " + count + " of " + expenses + " expenses");
+        }
+        return count;
+    }
+
+    // Same document shape as BackupService.exportTo, from a fixed seed so every format gets identical data
+    private void write(Path target) throws IOException {
+        Random random = new Random(SyntheticData.SEED);
+        LocalDateTime now = LocalDateTime.of(2026, 1, 1, 12, 0);
+        LocalDate firstDay = LocalDate.of(2020, 1, 1);
+
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(target), 64 * 1024);
+             JsonGenerator gen = codec.createGenerator(out, format)) {
+            gen.writeStartObject();
+            gen.writeStringField("version", BackupData.FORMAT_VERSION);
+            gen.writeFieldName("exportedAt");
+            gen.writeObject(now);
+
+            gen.writeArrayFieldStart("users");
+            for (int u = 0; u < USERS; u++) {
+                BackupData.UserBackup ub = new BackupData.UserBackup();
+                ub.setOriginalId((long) u + 1);
+                ub.setUsername("user" + u);
+                ub.setEmail("user" + u + "@example.com");
+                ub.setPasswordHash("$2a$10$abcdefghijklmnopqrstuuE5n2Q8u1Lw3yHj0vYk2pQ9s7a6b5c4d");
+                ub.setCreatedAt(now);
+                gen.writeObject(ub);
+            }
+            gen.writeEndArray();
+
+            gen.writeArrayFieldStart("categories");
+            for (int c = 0; c < SyntheticData.CATEGORIES.size(); c++) {
+                BackupData.CategoryBackup cb = new BackupData.CategoryBackup();
+                cb.setOriginalId((long) c + 1);
+                cb.setName(SyntheticData.CATEGORIES.get(c));
+                cb.setCreatedAt(now);
+                gen.writeObject(cb);
+            }
+            gen.writeEndArray();
+
+            gen.writeArrayFieldStart("expenses");
+            for (int i = 0; i < expenses; i++) {
+                BackupData.ExpenseBackup eb = new BackupData.ExpenseBackup();
+                eb.setOriginalId((long) i + 1);
+                eb.setUsername("user" + random.nextInt(USERS));
+                eb.setAmount(BigDecimal.valueOf(random.nextInt(50_000) + 100, 2));
+                eb.setCategory(SyntheticData.CATEGORIES.get(random.nextInt(SyntheticData.CATEGORIES.size())));
+                eb.setDescription("Expense " + random.nextInt(1000));
+                eb.setDate(firstDay.plusDays(random.nextInt(6 * 365)));
+                eb.setRecurring(random.nextInt(10) == 0);
+                eb.setCreatedAt(now.plusSeconds(i));
+                gen.writeObject(eb);
+            }
+            gen.writeEndArray();
+
+            gen.writeEndObject();
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.sohaib.trackmystacks.service;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.sohaib.trackmystacks.bench.SyntheticData;
+import com.sohaib.trackmystacks.dto.BackupData;
+import com.sohaib.trackmystacks.model.Category;
+import com.sohaib.trackmystacks.model.Expense;
+import com.sohaib.trackmystacks.model.Paycheck;
+import com.sohaib.trackmystacks.model.User;
+
+/**
+ * The in-memory side of BackupService.exportData / importData: mapping
+ * loaded entities to a BackupData document, encoding it with BackupCodec, and
+ * decoding an uploaded file back into BackupData. The repositories are left
+ * out; entities come from {@link SyntheticData} (50 users, 8 categories,
+ * 12 paychecks per user, {@code expenses} expenses).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(value = 1, jvmArgs = "-Xmx2g")
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class BackupSerializationBenchmark {
+
+    @Param({"10000", "100000"})
+    private int expenses;
+
+    @Param({"JSON", "JSON_GZIP", "SMILE"})
+    private BackupCodec.Format format;
+
+    private BackupCodec codec;
+    private List<User> users;
+    private List<Category> categories;
+    private List<Paycheck> paychecks;
+    private List<Expense> expenseRows;
+    private byte[] encoded;
+
+    @Setup
+    public void setUp() throws IOException {
+        codec = new BackupCodec();
+        SyntheticData.inject(codec, "objectMapper", SyntheticData.objectMapper());
+        codec.init();
+
+        users = SyntheticData.users(50);
+        categories = SyntheticData.categories();
+        paychecks = SyntheticData.paychecks(users, 12);
+        expenseRows = SyntheticData.expenses(users, expenses);
+        encoded = encode(toBackupData());
+    }
+
+    /** Entities → BackupData only, as exportData does after its queries. */
+    @Benchmark
+    public BackupData exportMapping() {
+        return toBackupData();
+    }
+
+    /** Mapping plus encoding: the whole CPU cost of producing a download. */
+    @Benchmark
+    public byte[] exportData() throws IOException {
+        return encode(toBackupData());
+    }
+
+    /** Decoding an uploaded file into the BackupData that importData restores. */
+    @Benchmark
+    public BackupData importData() throws IOException {
+        return codec.read(new ByteArrayInputStream(encoded), BackupData.class);
+    }
+
+    private BackupData toBackupData() {
+        BackupData backup = new BackupData();
+        backup.setExportedAt(LocalDateTime.of(2026, 1, 1, 12, 0));
+        backup.setUsers(map(users, BackupService::toUserBackup));
+        backup.setCategories(map(categories, BackupService::toCategoryBackup));
+        backup.setPaychecks(map(paychecks, BackupService::toPaycheckBackup));
+        backup.setExpenses(map(expenseRows, BackupService::toExpenseBackup));
+        return backup;
+    }
+
+    private byte[] encode(BackupData backup) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(encoded == null ? 1 << 20 : encoded.length);
+        codec.write(out, format, backup);
+        return out.toByteArray();
+    }
+
+    private static <E, D> List<D> map(List<E> rows, Function<E, D> mapper) {
+        List<D> result = new ArrayList<>(rows.size());
+        for (E row : rows) {
+            result.add(mapper.apply(row));
+        }
+        return result;
+    }
+}
@@ -0,0 +1,104 @@
+package com.sohaib.trackmystacks.service;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.sohaib.trackmystacks.bench.SyntheticData;
+import com.sohaib.trackmystacks.model.Expense;
+
+/**
+ * A one-year range sum and category breakdown, answered from loaded Expense
+ * entities (what the services used to do with a date-range query's results)
+ * versus from an {@link ExpenseLedger}. Building the ledger is timed
+ * separately: it is paid once per user until the ledger is evicted.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ExpenseLedgerBenchmark {
+
+    @Param({"1000", "100000"})
+    private int expenses;
+
+    private List<Expense> rows;
+    private ExpenseLedger ledger;
+    private LocalDate from;
+    private LocalDate to;
+
+    @Setup
+    public void setUp() {
+        rows = new ArrayList<>(SyntheticData.expenses(SyntheticData.users(1), expenses));
+        rows.sort(Comparator.comparing(Expense::getDate).thenComparing(Expense::getId).reversed());
+        ledger = build();
+        from = rows.get(rows.size() / 2).getDate().withDayOfMonth(1);
+        to = from.plusYears(1).minusDays(1);
+    }
+
+    @Benchmark
+    public ExpenseLedger buildLedger() {
+        return build();
+    }
+
+    @Benchmark
+    public BigDecimal entityRangeSum() {
+        BigDecimal total = BigDecimal.ZERO;
+        for (Expense e : rows) {
+            if (!e.getDate().isBefore(from) && !e.getDate().isAfter(to)) {
+                total = total.add(e.getAmount());
+            }
+        }
+        return total;
+    }
+
+    @Benchmark
+    public BigDecimal ledgerRangeSum() {
+        return ledger.sum(from.toEpochDay(), to.toEpochDay()).toBigDecimal();
+    }
+
+    @Benchmark
+    public Map<String, BigDecimal> entityCategoryTotals() {
+        Map<String, BigDecimal> totals = new HashMap<>();
+        for (Expense e : rows) {
+            if (!e.getDate().isBefore(from) && !e.getDate().isAfter(to)) {
+                totals.merge(e.getCategory().getName(), e.getAmount(), BigDecimal::add);
+            }
+        }
+        return totals;
+    }
+
+    @Benchmark
+    public long[] ledgerCategoryTotals() {
+        int[] counts = new int[ledger.categoryCount()];
+        return ledger.categorySumsBetween(new long[] {from.toEpochDay(), to.toEpochDay() + 1}, counts);
+    }
+
+    private ExpenseLedger build() {
+        ExpenseLedger.Builder builder = new ExpenseLedger.Builder();
+        for (Expense e : rows) {
+            builder.add(e.getId(), e.getDate().toEpochDay(), e.getAmount().unscaledValue().longValueExact(),
+                    e.getCategory().getId());
+        }
+        return builder.build();
+    }
+}
@@ -0,0 +1,95 @@
+package com.sohaib.trackmystacks.service;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.sohaib.trackmystacks.bench.SyntheticData;
+import com.sohaib.trackmystacks.dto.ExpenseSearchResult;
+import com.sohaib.trackmystacks.model.Expense;
+
+/**
+ * Finding a word in one user's expense descriptions: a case-insensitive
+ * substring scan over that user's loaded rows (what LIKE '%word%' does row by
+ * row in the database, minus the I/O) versus the first ranked page from an
+ * {@link ExpenseSearchIndex} holding every user. prefixPage is the same search
+ * with a half-typed word.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ExpenseSearchBenchmark {
+
+    private static final List<String> MERCHANTS = List.of(
+            "Starbucks coffee", "Whole Foods groceries", "Shell fuel", "Netflix subscription", "Amazon order",
+            "Uber ride", "Corner bakery", "Pharmacy refill", "Hardware store", "Cinema tickets");
+
+    @Param({"10000", "1000000"})
+    private int expenses;
+
+    private List<Expense> userRows;
+    private ExpenseSearchIndex index;
+    private long userId;
+
+    @Setup
+    public void setUp() throws IOException {
+        Random random = new Random(SyntheticData.SEED);
+        List<Expense> rows = SyntheticData.expenses(SyntheticData.users(10), expenses);
+        index = new ExpenseSearchIndex(new ByteBuffersDirectory());
+        for (Expense e : rows) {
+            e.setDescription(MERCHANTS.get(random.nextInt(MERCHANTS.size())) + " #" + e.getId());
+            index.put(e.getId(), e.getUser().getId(), e.getDate(), e.getAmount().unscaledValue().longValueExact(),
+                    e.getCategory().getName(), e.getDescription(), e.isRecurring());
+        }
+        index.commit();
+        index.refresh();
+        userId = rows.get(0).getUser().getId();
+        userRows = rows.stream().filter(e -> e.getUser().getId() == userId).toList();
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        index.close(false);
+    }
+
+    @Benchmark
+    public List<Expense> substringScan() {
+        List<Expense> hits = new ArrayList<>();
+        for (Expense e : userRows) {
+            if (e.getDescription().toLowerCase(Locale.ROOT).contains("starbucks")) {
+                hits.add(e);
+            }
+        }
+        return hits;
+    }
+
+    @Benchmark
+    public ExpenseSearchResult indexPage() throws IOException {
+        return index.search(userId, "starbucks", 0, ExpenseService.DEFAULT_PAGE_SIZE);
+    }
+
+    @Benchmark
+    public ExpenseSearchResult prefixPage() throws IOException {
+        return index.search(userId, "starb", 0, ExpenseService.DEFAULT_PAGE_SIZE);
+    }
+}
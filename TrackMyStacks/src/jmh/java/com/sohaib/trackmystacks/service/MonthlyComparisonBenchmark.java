@@ -0,0 +1,61 @@
+package com.sohaib.trackmystacks.service;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.sohaib.trackmystacks.bench.SyntheticData;
+import com.sohaib.trackmystacks.dto.MonthlyComparison;
+import com.sohaib.trackmystacks.model.MonthlySummary;
+import com.sohaib.trackmystacks.model.User;
+
+/**
+ * PaycheckService.getMonthlyComparison over the dashboard's window sizes.
+ * The rollup query is replaced by a fixed list of rows, so this times only
+ * the month-by-month assembly (map lookups, BigDecimal balance, labels).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class MonthlyComparisonBenchmark {
+
+    @Param({"6", "12", "120"})
+    private int months;
+
+    private PaycheckService paycheckService;
+    private User user;
+
+    @Setup
+    public void setUp() {
+        user = SyntheticData.users(1).get(0);
+        List<MonthlySummary> rows = SyntheticData.monthlySummaries(user, months);
+        MonthlySummaryService summaries = new MonthlySummaryService() {
+            @Override
+            public List<MonthlySummary> getSummaries(User u, LocalDate from, LocalDate to) {
+                return rows;
+            }
+        };
+        paycheckService = new PaycheckService();
+        SyntheticData.inject(paycheckService, "monthlySummaryService", summaries);
+    }
+
+    @Benchmark
+    public List<MonthlyComparison> monthlyComparison() {
+        return paycheckService.getMonthlyComparison(user, months);
+    }
+}
@@ -0,0 +1,64 @@
+package com.sohaib.trackmystacks.service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.sohaib.trackmystacks.bench.SyntheticData;
+import com.sohaib.trackmystacks.dto.UserBackupData;
+import com.sohaib.trackmystacks.model.Expense;
+
+/**
+ * The personal backup download (ExpenseController.exportMyBackup) minus the
+ * query: BackupService.buildUserBackup over one user's expenses, and the
+ * same followed by pretty-printed JSON as the endpoint sends by default.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class UserBackupBenchmark {
+
+    @Param({"1000", "50000"})
+    private int expenses;
+
+    private BackupService backupService;
+    private BackupCodec codec;
+    private List<Expense> rows;
+
+    @Setup
+    public void setUp() {
+        backupService = new BackupService();
+        codec = new BackupCodec();
+        SyntheticData.inject(codec, "objectMapper", SyntheticData.objectMapper());
+        codec.init();
+        rows = SyntheticData.expenses(SyntheticData.users(1), expenses);
+    }
+
+    @Benchmark
+    public UserBackupData mapping() {
+        return backupService.buildUserBackup("user1", rows);
+    }
+
+    @Benchmark
+    public int mappingAndJson() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        codec.write(out, BackupCodec.Format.JSON, backupService.buildUserBackup("user1", rows));
+        return out.size();
+    }
+}
@@ -0,0 +1,31 @@
+package com.sohaib.trackmystacks.loadtest;
+
+/** What a synthetic user can do, with its default share of the mix (percent). */
+enum Action {
+
+    DASHBOARD("GET  /dashboard", 55),
+    FEED("GET  /expenses/page", 10),
+    ADD_EXPENSE("POST /expenses/add", 15),
+    UPDATE_EXPENSE("POST /expenses/update/{id}", 10),
+    ADD_PAYCHECK("POST /paychecks/add", 3),
+    EXPORT("GET  /expenses/backup/export", 5),
+    IMPORT("POST /expenses/backup/import", 2),
+    // Not in the default mix; the whole mix of --scenario=logins
+    LOGIN("POST /login (new session)", 0);
+
+    private final String label;
+    private final int defaultWeight;
+
+    Action(String label, int defaultWeight) {
+        this.label = label;
+        this.defaultWeight = defaultWeight;
+    }
+
+    String getLabel() {
+        return label;
+    }
+
+    int getDefaultWeight() {
+        return defaultWeight;
+    }
+}
@@ -0,0 +1,126 @@
+package com.sohaib.trackmystacks.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Dashboard throughput at increasing numbers of concurrent clients
+ * (--scenario=concurrency). For each level, that many closed-loop clients
+ * share one tenant's session and request GET /dashboard back to back: each
+ * response sends the next request. Requests are asynchronous, so thousands of
+ * clients don't need thousands of threads here.
+ */
+class ConcurrencySweep {
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(60);
+    private static final int MAX_LATENCY_MS = 60_000;
+
+    private final HttpClient http = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    private final HttpRequest request;
+    private final Duration warmup;
+    private final Duration measure;
+
+    ConcurrencySweep(String baseUrl, String session, Duration warmup, Duration measure) {
+        this.request = HttpRequest.newBuilder(URI.create(baseUrl + "/dashboard"))
+                .header("Cookie", session)
+                .timeout(REQUEST_TIMEOUT)
+                .GET()
+                .build();
+        this.warmup = warmup;
+        this.measure = measure;
+    }
+
+    void run(String levels) throws InterruptedException {
+        System.out.printf("%-8s %10s %10s %10s %10s %8s%n", "clients", "req/sec", "mean ms", "p50 ms", "p99 ms", "errors");
+        for (String level : levels.split(",")) {
+            int clients = Integer.parseInt(level.trim());
+            Result r = measure(clients);
+            System.out.printf("%-8d %10.1f %10.1f %10d %10d %8d%n",
+                    clients, r.throughput(), r.meanMillis(), r.percentile(0.50), r.percentile(0.99), r.errors());
+        }
+    }
+
+    private Result measure(int clients) throws InterruptedException {
+        long start = System.nanoTime();
+        Run run = new Run(start + warmup.toNanos(), start + warmup.toNanos() + measure.toNanos(), clients);
+        for (int i = 0; i < clients; i++) {
+            run.next();
+        }
+        // In-flight requests get up to one timeout to finish; they no longer count
+        run.done.await(warmup.toNanos() + measure.toNanos() + REQUEST_TIMEOUT.toNanos(), TimeUnit.NANOSECONDS);
+        return run.result();
+    }
+
+    /** One level: a client per outstanding request, each response triggering the next request. */
+    private class Run {
+
+        final long measureFrom;
+        final long measureUntil;
+        final CountDownLatch done;
+        final LongAdder completed = new LongAdder();
+        final LongAdder errors = new LongAdder();
+        final LongAdder totalNanos = new LongAdder();
+        final AtomicLongArray latencyMillis = new AtomicLongArray(MAX_LATENCY_MS + 1);
+
+        Run(long measureFrom, long measureUntil, int clients) {
+            this.measureFrom = measureFrom;
+            this.measureUntil = measureUntil;
+            this.done = new CountDownLatch(clients);
+        }
+
+        void next() {
+            long sent = System.nanoTime();
+            if (sent >= measureUntil) {
+                done.countDown();
+                return;
+            }
+            // Async so a request that fails straight away doesn't recurse into the next one
+            http.sendAsync(request, HttpResponse.BodyHandlers.discarding()).whenCompleteAsync((response, error) -> {
+                long now = System.nanoTime();
+                if (sent >= measureFrom && now <= measureUntil) {
+                    if (error != null || response.statusCode() != 200) {
+                        errors.increment();
+                    } else {
+                        completed.increment();
+                        totalNanos.add(now - sent);
+                        latencyMillis.incrementAndGet((int) Math.min(MAX_LATENCY_MS, (now - sent) / 1_000_000));
+                    }
+                }
+                next();
+            });
+        }
+
+        Result result() {
+            long[] histogram = new long[latencyMillis.length()];
+            for (int i = 0; i < histogram.length; i++) {
+                histogram[i] = latencyMillis.get(i);
+            }
+            long count = completed.sum();
+            return new Result(count / (measure.toNanos() / 1e9),
+                    count == 0 ? 0 : totalNanos.sum() / 1_000_000.0 / count,
+                    histogram, count, errors.sum());
+        }
+    }
+
+    private record Result(double throughput, double meanMillis, long[] histogram, long count, long errors) {
+
+        long percentile(double p) {
+            long target = (long) Math.ceil(count * p);
+            long seen = 0;
+            for (int ms = 0; ms < histogram.length; ms++) {
+                seen += histogram[ms];
+                if (seen >= target && seen > 0) {
+                    return ms;
+                }
+            }
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.sohaib.trackmystacks.loadtest;
+
+import java.util.Arrays;
+
+/**
+ * Latencies and error count for one endpoint. Every sample is kept, so the
+ * percentiles are exact; a run produces at most a few hundred thousand.
+ */
+class EndpointStats {
+
+    private final String name;
+    private long[] micros = new long[1024];
+    private int count;
+    private long errors;
+
+    EndpointStats(String name) {
+        this.name = name;
+    }
+
+    String getName() {
+        return name;
+    }
+
+    synchronized void record(long latencyMicros, boolean ok) {
+        if (!ok) {
+            errors++;
+            return;
+        }
+        if (count == micros.length) {
+            micros = Arrays.copyOf(micros, count * 2);
+        }
+        micros[count++] = latencyMicros;
+    }
+
+    synchronized Summary summarize(double seconds) {
+        long[] sorted = Arrays.copyOf(micros, count);
+        Arrays.sort(sorted);
+        return new Summary(name, count, errors, count / seconds,
+                percentile(sorted, 0.50), percentile(sorted, 0.90), percentile(sorted, 0.99),
+                count == 0 ? 0 : sorted[count - 1] / 1000.0);
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(sorted.length * p) - 1;
+        return sorted[Math.max(0, index)] / 1000.0;
+    }
+
+    record Summary(String name, long count, long errors, double perSecond,
+                   double p50, double p90, double p99, double max) {}
+}
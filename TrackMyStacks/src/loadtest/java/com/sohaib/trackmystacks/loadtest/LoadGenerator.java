@@ -0,0 +1,240 @@
+package com.sohaib.trackmystacks.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * End-to-end load generator for a running TrackMyStacks instance.
+ *
+ * Signs in as the admin and creates {@code --users} synthetic tenants
+ * (loadtest-1, loadtest-2, ...; existing ones are reused, so repeated runs
+ * don't pile up accounts). Each tenant then logs in through the /login form and,
+ * on its own thread, performs a weighted random mix of dashboard views, feed
+ * pages, expense adds and updates, paycheck adds and personal backup
+ * export/import until the run ends. The first {@code --warmup} seconds are not
+ * counted. At the end it prints throughput and latency percentiles per endpoint.
+ *
+ * With {@code --scenario=logins} each tenant instead signs in over and over
+ * with a fresh session, a login burst whose cost is almost all password hash
+ * checks. {@code --scenario=concurrency} uses one tenant and measures dashboard
+ * throughput at each of {@code --levels} concurrent clients (see ConcurrencySweep).
+ *
+ * Only the JDK is needed; see README "Load Testing" for how to run it.
+ */
+public final class LoadGenerator {
+
+    static final String TENANT_PREFIX = "loadtest-";
+    static final String TENANT_PASSWORD = "loadtest-password";
+
+    private final Map<String, String> options;
+    private final HttpClient http = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+
+    private LoadGenerator(Map<String, String> options) {
+        this.options = options;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                System.err.println("Options look like --name=value, got: " + arg);
+                System.exit(2);
+            }
+            options.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+        }
+        new LoadGenerator(options).run();
+    }
+
+    private String option(String name, String defaultValue) {
+        return options.getOrDefault(name, defaultValue);
+    }
+
+    private int intOption(String name, int defaultValue) {
+        return Integer.parseInt(option(name, String.valueOf(defaultValue)));
+    }
+
+    private void run() throws Exception {
+        String baseUrl = option("base-url", "http://localhost:8785");
+        String scenario = option("scenario", "mix");
+        if (scenario.equals("concurrency")) {
+            sweepConcurrency(baseUrl);
+            return;
+        }
+        boolean loginsOnly = switch (scenario) {
+            case "mix" -> false;
+            case "logins" -> true;
+            default -> throw new IllegalArgumentException(
+                    "Unknown --scenario: " + scenario + " (mix, logins or concurrency)");
+        };
+        int users = intOption("users", 20);
+        int duration = intOption("duration", 60);
+        int warmup = intOption("warmup", 10);
+        int thinkMillis = intOption("think-ms", 0);
+        int initialExpenses = intOption("initial-expenses", loginsOnly ? 0 : 20);
+        long seed = Long.parseLong(option("seed", "42"));
+        Map<Action, Integer> mix = loginsOnly
+                ? new EnumMap<>(Map.of(Action.LOGIN, 1))
+                : parseMix(option("mix", ""));
+
+        System.out.printf("Load test against %s (%s): %d users, %d s (+%d s warm-up), think time %d ms%n",
+                baseUrl, scenario, users, duration, warmup, thinkMillis);
+        System.out.println("Mix: " + mix);
+
+        createTenants(baseUrl, users);
+
+        List<Tenant> tenants = new ArrayList<>();
+        Map<Action, EndpointStats> setupStats = newStats();
+        for (int i = 1; i <= users; i++) {
+            Tenant tenant = new Tenant(http, baseUrl, TENANT_PREFIX + i, TENANT_PASSWORD, seed + i);
+            tenant.login();
+            // Some rows to update and export from the start; not measured
+            for (int e = 0; e < initialExpenses; e++) {
+                tenant.perform(Action.ADD_EXPENSE, setupStats);
+            }
+            tenants.add(tenant);
+        }
+
+        AtomicReference<Map<Action, EndpointStats>> stats = new AtomicReference<>(newStats());
+        long start = System.nanoTime();
+        long measureFrom = start + Duration.ofSeconds(warmup).toNanos();
+        long end = measureFrom + Duration.ofSeconds(duration).toNanos();
+
+        List<Thread> threads = new ArrayList<>();
+        for (Tenant tenant : tenants) {
+            Thread thread = new Thread(() -> drive(tenant, mix, stats, end, thinkMillis), tenant.getUsername());
+            thread.start();
+            threads.add(thread);
+        }
+        Thread.sleep(Duration.ofNanos(measureFrom - System.nanoTime()).toMillis());
+        stats.set(newStats());   // drop the warm-up samples
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        report(stats.get(), (System.nanoTime() - measureFrom) / 1e9);
+    }
+
+    // One tenant's session shared by every client of every level
+    private void sweepConcurrency(String baseUrl) throws IOException, InterruptedException {
+        String levels = option("levels", "100,1000,10000");
+        int duration = intOption("duration", 15);
+        int warmup = intOption("warmup", 5);
+        if (duration <= 0) {
+            throw new IllegalArgumentException("--duration must be at least 1 second for --scenario=concurrency");
+        }
+        System.out.printf("Concurrency sweep against %s: GET /dashboard, %d s (+%d s warm-up) per level%n",
+                baseUrl, duration, warmup);
+
+        createTenants(baseUrl, 1);
+        Tenant tenant = new Tenant(http, baseUrl, TENANT_PREFIX + 1, TENANT_PASSWORD, 0);
+        tenant.login();
+        new ConcurrencySweep(baseUrl, tenant.getSession(), Duration.ofSeconds(warmup), Duration.ofSeconds(duration))
+                .run(levels);
+    }
+
+    private static void drive(Tenant tenant, Map<Action, Integer> mix,
+                              AtomicReference<Map<Action, EndpointStats>> stats, long end, int thinkMillis) {
+        int totalWeight = mix.values().stream().mapToInt(Integer::intValue).sum();
+        Random random = tenant.getRandom();
+        try {
+            while (System.nanoTime() < end) {
+                tenant.perform(pick(mix, random.nextInt(totalWeight)), stats.get());
+                if (thinkMillis > 0) {
+                    Thread.sleep(thinkMillis);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static Action pick(Map<Action, Integer> mix, int roll) {
+        for (Map.Entry<Action, Integer> entry : mix.entrySet()) {
+            roll -= entry.getValue();
+            if (roll < 0) {
+                return entry.getKey();
+            }
+        }
+        throw new IllegalStateException("empty mix");
+    }
+
+    // The admin form answers "Username already exists" for tenants left from an earlier run; that's fine
+    private void createTenants(String baseUrl, int users) throws IOException, InterruptedException {
+        Tenant admin = new Tenant(http, baseUrl, option("admin-user", "admin"), option("admin-password", "admin123"), 0);
+        admin.login();
+        for (int i = 1; i <= users; i++) {
+            String username = TENANT_PREFIX + i;
+            String form = "username=" + username
+                    + "&email=" + URLEncoder.encode(username + "@loadtest.invalid", StandardCharsets.UTF_8)
+                    + "&password=" + TENANT_PASSWORD;
+            HttpResponse<Void> response = http.send(HttpRequest.newBuilder(URI.create(baseUrl + "/admin/create-user"))
+                    .header("Cookie", admin.getSession())
+                    .header("Content-Type", "application/x-www-form-urlencoded")
+                    .POST(HttpRequest.BodyPublishers.ofString(form))
+                    .build(), HttpResponse.BodyHandlers.discarding());
+            if (response.statusCode() != 302) {
+                throw new IOException("Creating " + username + " failed (HTTP " + response.statusCode() + ")");
+            }
+        }
+    }
+
+    // "dashboard:60,add-expense:20,export:0" overrides the listed weights, the rest keep their defaults
+    private static Map<Action, Integer> parseMix(String spec) {
+        Map<Action, Integer> mix = new EnumMap<>(Action.class);
+        for (Action action : Action.values()) {
+            mix.put(action, action.getDefaultWeight());
+        }
+        if (!spec.isBlank()) {
+            for (String part : spec.split(",")) {
+                String[] kv = part.split(":");
+                Action action = Action.valueOf(kv[0].trim().toUpperCase(Locale.ROOT).replace('-', '_'));
+                mix.put(action, Integer.parseInt(kv[1].trim()));
+            }
+        }
+        mix.values().removeIf(weight -> weight <= 0);
+        return mix;
+    }
+
+    private static Map<Action, EndpointStats> newStats() {
+        Map<Action, EndpointStats> stats = new EnumMap<>(Action.class);
+        for (Action action : Action.values()) {
+            stats.put(action, new EndpointStats(action.getLabel()));
+        }
+        return stats;
+    }
+
+    private static void report(Map<Action, EndpointStats> stats, double seconds) {
+        System.out.printf("%nMeasured %.1f s%n", seconds);
+        System.out.printf("%-32s %8s %7s %9s %9s %9s %9s %9s%n",
+                "endpoint", "count", "errors", "req/s", "p50 ms", "p90 ms", "p99 ms", "max ms");
+        long count = 0;
+        long errors = 0;
+        for (EndpointStats endpoint : stats.values()) {
+            EndpointStats.Summary s = endpoint.summarize(seconds);
+            if (s.count() + s.errors() == 0) {
+                continue;
+            }
+            count += s.count();
+            errors += s.errors();
+            System.out.printf("%-32s %8d %7d %9.1f %9.1f %9.1f %9.1f %9.1f%n",
+                    s.name(), s.count(), s.errors(), s.perSecond(), s.p50(), s.p90(), s.p99(), s.max());
+        }
+        System.out.printf("%-32s %8d %7d %9.1f%n", "total", count, errors, count / seconds);
+    }
+}
@@ -0,0 +1,221 @@
+package com.sohaib.trackmystacks.loadtest;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Predicate;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * One synthetic user: its own session, random stream and working set
+ * (expense ids seen in the feed, the last backup it downloaded).
+ */
+class Tenant {
+
+    private static final List<String> CATEGORIES = List.of(
+            "Food", "Transport", "Entertainment", "Utilities", "Healthcare", "Shopping", "Education", "Other");
+    private static final Pattern EXPENSE_ID = Pattern.compile("\"id\"\\s*:\\s*(\\d+)");
+    private static final Duration TIMEOUT = Duration.ofSeconds(60);
+    private static final String BOUNDARY = "----trackmystacks-loadtest";
+
+    private final HttpClient http;
+    private final String baseUrl;
+    private final String username;
+    private final String password;
+    private final Random random;
+    private final List<Long> expenseIds = new ArrayList<>();
+    private String session;
+    private byte[] lastExport;
+
+    Tenant(HttpClient http, String baseUrl, String username, String password, long seed) {
+        this.http = http;
+        this.baseUrl = baseUrl;
+        this.username = username;
+        this.password = password;
+        this.random = new Random(seed);
+    }
+
+    String getUsername() {
+        return username;
+    }
+
+    Random getRandom() {
+        return random;
+    }
+
+    String getSession() {
+        return session;
+    }
+
+    /** Form login; keeps the session cookie Spring Security issues on success. */
+    void login() throws IOException, InterruptedException {
+        HttpResponse<Void> response = http.send(post("/login", form("username", username, "password", password)),
+                HttpResponse.BodyHandlers.discarding());
+        session = response.headers().allValues("Set-Cookie").stream()
+                .filter(c -> c.startsWith("JSESSIONID="))
+                .map(c -> c.substring(0, c.indexOf(';')))
+                .findFirst()
+                .orElse(null);
+        if (session == null || !redirectsTo(response, "/dashboard")) {
+            throw new IOException("Login failed for " + username + " (HTTP " + response.statusCode() + ")");
+        }
+    }
+
+    /** Runs one action, timing only the request(s) that belong to it. */
+    void perform(Action action, Map<Action, EndpointStats> stats) throws InterruptedException {
+        try {
+            switch (action) {
+                case DASHBOARD -> timed(action, stats, get("/dashboard"), r -> r.statusCode() == 200);
+                case FEED -> feed(stats);
+                case ADD_EXPENSE -> timed(action, stats, post("/expenses/add", expenseForm()), this::toDashboard);
+                case UPDATE_EXPENSE -> {
+                    if (expenseIds.isEmpty()) {
+                        feed(stats);
+                    }
+                    if (!expenseIds.isEmpty()) {
+                        long id = expenseIds.get(random.nextInt(expenseIds.size()));
+                        timed(action, stats, post("/expenses/update/" + id, expenseForm()), this::toDashboard);
+                    }
+                }
+                case ADD_PAYCHECK -> timed(action, stats, post("/paychecks/add", form(
+                        "amount", BigDecimal.valueOf(200_000 + random.nextInt(300_000), 2).toPlainString(),
+                        "month", LocalDate.now().minusMonths(random.nextInt(24)).toString().substring(0, 7),
+                        "description", "Salary")), this::toDashboard);
+                case EXPORT -> export(stats);
+                case IMPORT -> {
+                    if (lastExport == null) {
+                        export(stats);
+                    }
+                    if (lastExport != null) {
+                        // Replaces the tenant's expenses with the same rows under new ids
+                        timed(action, stats, multipart("/expenses/backup/import", lastExport), this::toDashboard);
+                        expenseIds.clear();
+                    }
+                }
+                case LOGIN -> {
+                    // Without the old cookie the server checks the password hash again, as for a new visitor
+                    session = null;
+                    long start = System.nanoTime();
+                    login();
+                    stats.get(action).record((System.nanoTime() - start) / 1000, true);
+                }
+            }
+        } catch (IOException e) {
+            stats.get(action).record(0, false);
+        }
+    }
+
+    private void feed(Map<Action, EndpointStats> stats) throws IOException, InterruptedException {
+        HttpResponse<String> response = timed(Action.FEED, stats, get("/expenses/page?size=20"),
+                r -> r.statusCode() == 200, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() == 200) {
+            expenseIds.clear();
+            Matcher m = EXPENSE_ID.matcher(response.body());
+            while (m.find()) {
+                expenseIds.add(Long.parseLong(m.group(1)));
+            }
+        }
+    }
+
+    private void export(Map<Action, EndpointStats> stats) throws IOException, InterruptedException {
+        HttpResponse<byte[]> response = timed(Action.EXPORT, stats, get("/expenses/backup/export"),
+                r -> r.statusCode() == 200, HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() == 200) {
+            lastExport = response.body();
+        }
+    }
+
+    private String expenseForm() {
+        return form(
+                "amount", BigDecimal.valueOf(100 + random.nextInt(50_000), 2).toPlainString(),
+                "category", CATEGORIES.get(random.nextInt(CATEGORIES.size())),
+                "description", "Load test " + random.nextInt(10_000),
+                "date", LocalDate.now().minusDays(random.nextInt(730)).toString(),
+                "recurring", random.nextInt(10) == 0 ? "true" : "false");
+    }
+
+    // -------------------------------------------------------------------------
+    // HTTP plumbing
+    // -------------------------------------------------------------------------
+
+    private void timed(Action action, Map<Action, EndpointStats> stats, HttpRequest request,
+                       Predicate<HttpResponse<Void>> ok) throws IOException, InterruptedException {
+        timed(action, stats, request, ok, HttpResponse.BodyHandlers.discarding());
+    }
+
+    private <T> HttpResponse<T> timed(Action action, Map<Action, EndpointStats> stats, HttpRequest request,
+                                      Predicate<HttpResponse<T>> ok,
+                                      HttpResponse.BodyHandler<T> handler) throws IOException, InterruptedException {
+        long start = System.nanoTime();
+        HttpResponse<T> response = http.send(request, handler);
+        long micros = (System.nanoTime() - start) / 1000;
+        boolean success = ok.test(response);
+        stats.get(action).record(micros, success);
+        if (redirectsTo(response, "/login")) {
+            login();   // session lost (e.g. server restarted); carry on with a new one
+        }
+        return response;
+    }
+
+    private boolean toDashboard(HttpResponse<?> response) {
+        return redirectsTo(response, "/dashboard");
+    }
+
+    private static boolean redirectsTo(HttpResponse<?> response, String path) {
+        return response.statusCode() == 302
+                && response.headers().firstValue("Location").map(l -> l.contains(path)).orElse(false);
+    }
+
+    private HttpRequest.Builder request(String path) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(TIMEOUT);
+        if (session != null) {
+            builder.header("Cookie", session);
+        }
+        return builder;
+    }
+
+    private HttpRequest get(String path) {
+        return request(path).GET().build();
+    }
+
+    private HttpRequest post(String path, String form) {
+        return request(path)
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString(form))
+                .build();
+    }
+
+    private HttpRequest multipart(String path, byte[] file) {
+        byte[] head = ("--" + BOUNDARY + "\r\n"
+                + "Content-Disposition: form-data; name=\"backupFile\"; filename=\"backup.json\"\r\n"
+                + "Content-Type: application/json\r\n\r\n").getBytes(StandardCharsets.UTF_8);
+        byte[] tail = ("\r\n--" + BOUNDARY + "--\r\n").getBytes(StandardCharsets.UTF_8);
+        return request(path)
+                .header("Content-Type", "multipart/form-data; boundary=" + BOUNDARY)
+                .POST(HttpRequest.BodyPublishers.ofByteArrays(List.of(head, file, tail)))
+                .build();
+    }
+
+    private static String form(String... pairs) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < pairs.length; i += 2) {
+            if (i > 0) {
+                sb.append('&');
+            }
+            sb.append(pairs[i]).append('=').append(URLEncoder.encode(pairs[i + 1], StandardCharsets.UTF_8));
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,19 @@
+package com.sohaib.trackmystacks.config;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a controller parameter of type {@code User} to be filled with the
+ * logged-in user. The value is a lazy reference built from the id in the
+ * session's UserPrincipal: passing it to services and queries costs no SELECT,
+ * reading a field other than the id loads the row on first access.
+ */
+@Target(ElementType.PARAMETER)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface CurrentUser {
+}
@@ -0,0 +1,56 @@
+package com.sohaib.trackmystacks.config;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.MethodParameter;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.bind.support.WebDataBinderFactory;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.method.support.ModelAndViewContainer;
+
+import com.sohaib.trackmystacks.model.User;
+import com.sohaib.trackmystacks.repository.UserRepository;
+import com.sohaib.trackmystacks.service.UserPrincipal;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+/**
+ * Resolves {@code @CurrentUser User} controller parameters.
+ * The id comes from the UserPrincipal stored at login, and
+ * EntityManager.getReference turns it into a User without touching the
+ * database; the request-scoped (open-in-view) persistence context loads the
+ * row only if a handler actually reads the user's fields.
+ */
+@Component
+public class CurrentUserArgumentResolver implements HandlerMethodArgumentResolver {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Override
+    public boolean supportsParameter(MethodParameter parameter) {
+        return parameter.hasParameterAnnotation(CurrentUser.class)
+                && User.class.equals(parameter.getParameterType());
+    }
+
+    @Override
+    public Object resolveArgument(MethodParameter parameter, ModelAndViewContainer mavContainer,
+                                  NativeWebRequest webRequest, WebDataBinderFactory binderFactory) {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth == null) {
+            throw new RuntimeException("User not found");
+        }
+        if (auth.getPrincipal() instanceof UserPrincipal principal) {
+            return entityManager.getReference(User.class, principal.getId());
+        }
+        // Any other kind of authentication: fall back to the lookup by name
+        return userRepository.findByUsername(auth.getName())
+                .orElseThrow(() -> new RuntimeException("User not found"));
+    }
+}
@@ -2,12 +2,16 @@ package com.sohaib.trackmystacks.config;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
 import org.springframework.stereotype.Component;
 
 import com.sohaib.trackmystacks.service.CategoryService;
 import com.sohaib.trackmystacks.service.UserService;
 
+// First runner: the others (e.g. DataSeeder) expect the admin and default categories to exist
 @Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
 public class DataInitializer implements CommandLineRunner {
     
     @Autowired
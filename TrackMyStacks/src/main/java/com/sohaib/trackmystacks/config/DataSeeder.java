@@ -0,0 +1,322 @@
+package com.sohaib.trackmystacks.config;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.sohaib.trackmystacks.model.Category;
+import com.sohaib.trackmystacks.service.CategoryService;
+import com.sohaib.trackmystacks.service.EntityCache;
+import com.sohaib.trackmystacks.service.ExpenseSearchIndexer;
+import com.sohaib.trackmystacks.service.MonthlySummaryService;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Bulk synthetic data for scale testing and capacity planning.
+ *
+ * Started with --seed-data, the app adds trackmystacks.seed.users users
+ * (seed-user-1, seed-user-2, ...; password "seed123"), tops the category list
+ * up to trackmystacks.seed.categories, and inserts trackmystacks.seed.expenses
+ * expenses plus one paycheck per user per month over the last
+ * trackmystacks.seed.months months. It then rebuilds the monthly rollup,
+ * queues a search index rebuild and keeps running, so the seeded database can
+ * be used straight away.
+ *
+ * The data is skewed the way real data is: a few users own most of the
+ * expenses, a few categories get most of the spending, and amounts are
+ * log-normal around a per-category median. About 1 in 12 expenses is recurring.
+ * A fixed trackmystacks.seed.random-seed produces the same data on every run.
+ *
+ * Rows bypass JPA: they go in as plain JDBC batches of
+ * trackmystacks.seed.batch-size rows, each batch in its own transaction.
+ * Expense ids come from expenses_seq in blocks of 50, the same way
+ * Hibernate's pooled optimizer takes them, so the app can keep inserting
+ * after the seeder has run. Does nothing if seed-user-1 already exists.
+ */
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE - 1)
+public class DataSeeder implements CommandLineRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(DataSeeder.class);
+
+    private static final String FLAG = "--seed-data";
+    private static final String USER_PREFIX = "seed-user-";
+    private static final String PASSWORD = "seed123";
+    // Must match allocationSize on Expense.id
+    private static final int ID_BLOCK = 50;
+    private static final double RECURRING_SHARE = 1.0 / 12;
+    private static final List<String> MERCHANTS = List.of(
+            "Corner Market", "City Transit", "Cinema", "Power & Water", "Online Store", "Pharmacy",
+            "Coffee Shop", "Gas Station", "Bookstore", "Gym", "Restaurant", "Hardware Store",
+            "Streaming Service", "Phone Plan", "Bakery", "Taxi");
+
+    @Value("${trackmystacks.seed.users:100}")
+    private int users;
+
+    @Value("${trackmystacks.seed.categories:8}")
+    private int categories;
+
+    @Value("${trackmystacks.seed.expenses:1000000}")
+    private long expenses;
+
+    @Value("${trackmystacks.seed.months:36}")
+    private int months;
+
+    @Value("${trackmystacks.seed.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${trackmystacks.seed.random-seed:42}")
+    private long randomSeed;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    // Only present on PostgreSQL, where expenses is partitioned by month
+    @Autowired
+    private ObjectProvider<ExpensePartitionMaintainer> partitions;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Autowired
+    private MonthlySummaryService monthlySummaryService;
+
+    @Autowired
+    private EntityCache entityCache;
+
+    @Autowired
+    private ExpenseSearchIndexer searchIndexer;
+
+    @Override
+    public void run(String... args) {
+        if (!Arrays.asList(args).contains(FLAG)) {
+            return;
+        }
+        if (users < 1 || months < 1) {
+            throw new IllegalArgumentException("trackmystacks.seed.users and trackmystacks.seed.months must be at least 1");
+        }
+        Integer existing = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM users WHERE username = ?", Integer.class, USER_PREFIX + 1);
+        if (existing != null && existing > 0) {
+            log.info("Seed data already present ({}1 exists); nothing seeded.", USER_PREFIX);
+            return;
+        }
+
+        log.info("Seeding {} users, {} categories, {} expenses over {} months...",
+                users, categories, expenses, months);
+        long start = System.currentTimeMillis();
+        Random random = new Random(randomSeed);
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+
+        List<Long> userIds = seedUsers();
+        List<Long> categoryIds = seedCategories();
+        seedExpenses(tx, random, userIds, categoryIds);
+        seedPaychecks(tx, random, userIds);
+
+        int summaryRows = monthlySummaryService.rebuildAll();
+        // Rows written over JDBC never passed through the second-level cache
+        entityCache.evictAll();
+        searchIndexer.reindexAll();   // runs in the background
+        log.info("Seeding done in {} ms ({} monthly summary rows). Users log in with password {}.",
+                System.currentTimeMillis() - start, summaryRows, PASSWORD);
+    }
+
+    // -------------------------------------------------------------------------
+    // Users and categories
+    // -------------------------------------------------------------------------
+
+    private List<Long> seedUsers() {
+        // One hash for everybody: at the calibrated BCrypt cost, hashing per user would dominate
+        String hash = passwordEncoder.encode(PASSWORD);
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> rows = new ArrayList<>();
+        for (int u = 1; u <= users; u++) {
+            rows.add(new Object[] {USER_PREFIX + u, USER_PREFIX + u + "@seed.invalid", hash, false, now, now});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO users (username, email, password, is_admin, created_at, updated_at) "
+                + "VALUES (?, ?, ?, ?, ?, ?)", rows);
+        return jdbcTemplate.queryForList("SELECT id FROM users WHERE username LIKE ? ORDER BY id",
+                Long.class, USER_PREFIX + "%");
+    }
+
+    private List<Long> seedCategories() {
+        List<Long> ids = categoryService.getAllCategories().stream()
+                .map(Category::getId)
+                .collect(Collectors.toCollection(ArrayList::new));
+        for (int c = ids.size() + 1; c <= categories; c++) {
+            ids.add(categoryService.createCategory("Category " + c).getId());
+        }
+        return ids;
+    }
+
+    // -------------------------------------------------------------------------
+    // Expenses and paychecks
+    // -------------------------------------------------------------------------
+
+    private void seedExpenses(TransactionTemplate tx, Random random, List<Long> userIds, List<Long> categoryIds) {
+        long[] perUser = splitByWeight(expenses, lognormalWeights(random, userIds.size(), 1.0));
+        double[] categoryShare = zipfWeights(categoryIds.size());
+        double[] categoryMedian = new double[categoryIds.size()];
+        for (int c = 0; c < categoryMedian.length; c++) {
+            categoryMedian[c] = Math.exp(Math.log(5) + random.nextDouble() * Math.log(30));   // 5 .. 150
+        }
+        LocalDate firstDay = LocalDate.now().withDayOfMonth(1).minusMonths(months - 1);
+        int days = (int) (LocalDate.now().toEpochDay() - firstDay.toEpochDay()) + 1;
+        // Past months would otherwise all pile up in the default partition
+        partitions.ifAvailable(p -> p.ensurePartitions(firstDay, LocalDate.now()));
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        String nextId = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getJdbcServices().getDialect().getSequenceSupport().getSequenceNextValString("expenses_seq");
+        String insert = "INSERT INTO expenses (id, user_id, amount, category_id, description, expense_date, "
+                + "recurring, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+        long done = 0;
+        long reportEvery = Math.max(expenses / 10, 1);
+        long started = System.currentTimeMillis();
+        long blockEnd = 0;
+        long nextIdValue = 0;
+        List<Object[]> batch = new ArrayList<>(batchSize);
+        for (int u = 0; u < userIds.size(); u++) {
+            for (long i = 0; i < perUser[u]; i++) {
+                if (nextIdValue == blockEnd) {
+                    blockEnd = jdbcTemplate.queryForObject(nextId, Long.class);
+                    nextIdValue = blockEnd - ID_BLOCK;
+                }
+                int c = pick(random, categoryShare);
+                boolean recurring = random.nextDouble() < RECURRING_SHARE;
+                // Log-normal, sigma 0.9: most amounts near the median, a long tail of big ones
+                double amount = categoryMedian[c] * Math.exp(random.nextGaussian() * 0.9) * (recurring ? 4 : 1);
+                batch.add(new Object[] {
+                        ++nextIdValue,
+                        userIds.get(u),
+                        BigDecimal.valueOf(Math.max(50, Math.min(Math.round(amount * 100), 99_999_99)), 2),
+                        categoryIds.get(c),
+                        MERCHANTS.get(random.nextInt(MERCHANTS.size())),
+                        Date.valueOf(firstDay.plusDays(random.nextInt(days))),
+                        recurring,
+                        now,
+                        now});
+                if (batch.size() == batchSize) {
+                    insert(tx, insert, batch);
+                }
+                if (++done % reportEvery == 0) {
+                    long ms = Math.max(System.currentTimeMillis() - started, 1);
+                    log.info("  {} / {} expenses ({} rows/s)", done, expenses, done * 1000 / ms);
+                }
+            }
+        }
+        insert(tx, insert, batch);
+    }
+
+    private void seedPaychecks(TransactionTemplate tx, Random random, List<Long> userIds) {
+        LocalDate firstMonth = LocalDate.now().withDayOfMonth(1).minusMonths(months - 1);
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        String insert = "INSERT INTO paychecks (user_id, amount, paycheck_month, description, created_at, updated_at) "
+                + "VALUES (?, ?, ?, ?, ?, ?)";
+        List<Object[]> batch = new ArrayList<>(batchSize);
+        for (Long userId : userIds) {
+            double salary = 3000 * Math.exp(random.nextGaussian() * 0.4);
+            for (int m = 0; m < months; m++) {
+                double amount = salary * (1 + random.nextGaussian() * 0.05);
+                batch.add(new Object[] {
+                        userId,
+                        BigDecimal.valueOf(Math.round(amount * 100), 2),
+                        Date.valueOf(firstMonth.plusMonths(m)),
+                        "Salary",
+                        now,
+                        now});
+                if (batch.size() == batchSize) {
+                    insert(tx, insert, batch);
+                }
+            }
+        }
+        insert(tx, insert, batch);
+        log.info("  {} paychecks", (long) userIds.size() * months);
+    }
+
+    private void insert(TransactionTemplate tx, String sql, List<Object[]> batch) {
+        if (!batch.isEmpty()) {
+            tx.executeWithoutResult(status -> jdbcTemplate.batchUpdate(sql, batch));
+            batch.clear();
+        }
+    }
+
+    // -------------------------------------------------------------------------
+    // Distributions
+    // -------------------------------------------------------------------------
+
+    private static double[] lognormalWeights(Random random, int n, double sigma) {
+        double[] weights = new double[n];
+        for (int i = 0; i < n; i++) {
+            weights[i] = Math.exp(random.nextGaussian() * sigma);
+        }
+        return weights;
+    }
+
+    // Share of the k-th most popular item proportional to 1/k
+    private static double[] zipfWeights(int n) {
+        double[] cumulative = new double[n];
+        double sum = 0;
+        for (int k = 0; k < n; k++) {
+            sum += 1.0 / (k + 1);
+            cumulative[k] = sum;
+        }
+        for (int k = 0; k < n; k++) {
+            cumulative[k] /= sum;
+        }
+        return cumulative;
+    }
+
+    private static int pick(Random random, double[] cumulative) {
+        int index = Arrays.binarySearch(cumulative, random.nextDouble());
+        return Math.min(index >= 0 ? index : -index - 1, cumulative.length - 1);
+    }
+
+    // Splits total into whole counts proportional to the weights; the rounding remainder goes to the first entries
+    private static long[] splitByWeight(long total, double[] weights) {
+        double sum = Arrays.stream(weights).sum();
+        long[] counts = new long[weights.length];
+        long assigned = 0;
+        for (int i = 0; i < weights.length; i++) {
+            counts[i] = (long) (total * weights[i] / sum);
+            assigned += counts[i];
+        }
+        for (int i = 0; assigned < total; i = (i + 1) % counts.length) {
+            counts[i]++;
+            assigned++;
+        }
+        return counts;
+    }
+}
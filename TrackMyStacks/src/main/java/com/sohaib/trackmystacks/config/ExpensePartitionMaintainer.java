@@ -0,0 +1,65 @@
+package com.sohaib.trackmystacks.config;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps the monthly partitions of the expenses table in place on PostgreSQL
+ * (see db/postgresql/V5_1__partition_expenses_by_month.sql).
+ *
+ * At startup and on trackmystacks.partitions.cron it creates the partitions
+ * for the current month and the next trackmystacks.partitions.months-ahead,
+ * and a partition for every month that has rows waiting in expenses_default
+ * (expenses dated far back or ahead, restored backups), which moves those rows
+ * into it. Partitions are never dropped.
+ */
+@Component
+@Profile("postgres")
+public class ExpensePartitionMaintainer {
+
+    private static final Logger log = LoggerFactory.getLogger(ExpensePartitionMaintainer.class);
+
+    @Value("${trackmystacks.partitions.months-ahead:12}")
+    private int monthsAhead;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // Started, not ready: the --seed-data and --verify-* runners come in between
+    @EventListener(ApplicationStartedEvent.class)
+    @Scheduled(cron = "${trackmystacks.partitions.cron:0 15 3 * * *}")
+    public void maintain() {
+        LocalDate today = LocalDate.now();
+        int created = ensurePartitions(today, today.plusMonths(monthsAhead));
+
+        List<Date> stranded = jdbcTemplate.queryForList(
+                "SELECT DISTINCT CAST(date_trunc('month', expense_date) AS DATE) FROM expenses_default", Date.class);
+        for (Date month : stranded) {
+            LocalDate first = month.toLocalDate();
+            created += ensurePartitions(first, first);
+        }
+        if (created > 0) {
+            log.info("Expense partitions created: {} ({} months moved out of expenses_default).",
+                    created, stranded.size());
+        }
+    }
+
+    /** Creates any missing partitions for the months from {@code from} to {@code to}; returns how many. */
+    public int ensurePartitions(LocalDate from, LocalDate to) {
+        Integer created = jdbcTemplate.queryForObject("SELECT create_expense_partitions(?, ?)", Integer.class,
+                Date.valueOf(from), Date.valueOf(to));
+        return created == null ? 0 : created;
+    }
+}
@@ -0,0 +1,79 @@
+package com.sohaib.trackmystacks.config;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.OptionalLong;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.configuration.CompleteConfiguration;
+import javax.cache.configuration.MutableConfiguration;
+import javax.cache.spi.CachingProvider;
+
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.spi.RegionFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+
+/**
+ * Hibernate second-level cache regions, backed by Caffeine through JCache.
+ *
+ * Only users and categories are cached: both tables are tiny, read on nearly
+ * every request and rarely written. Entity and natural-id regions are bounded
+ * by trackmystacks.entity-cache.max-size / .ttl; the update-timestamps region
+ * that invalidates cached query results must never drop entries, so it is left
+ * unbounded (it holds one entry per table).
+ *
+ * The regions are created here and handed to Hibernate as a ready CacheManager,
+ * with missing_cache_strategy=fail, so an entity annotated with an unknown region
+ * stops startup instead of silently getting an unbounded default cache.
+ */
+@Configuration
+public class HibernateCacheConfig {
+
+    public static final String USERS = "users";
+    public static final String USERS_BY_USERNAME = "users-by-username";
+    public static final String CATEGORIES = "categories";
+    public static final String CATEGORIES_BY_NAME = "categories-by-name";
+
+    private static final List<String> BOUNDED_REGIONS = List.of(
+            USERS, USERS_BY_USERNAME, CATEGORIES, CATEGORIES_BY_NAME,
+            RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME);
+
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager(
+            @Value("${trackmystacks.entity-cache.max-size:10000}") long maxSize,
+            @Value("${trackmystacks.entity-cache.ttl:1h}") Duration ttl) {
+        CachingProvider provider = Caching.getCachingProvider(CaffeineCachingProvider.class.getName());
+        CacheManager cacheManager = provider.getCacheManager(provider.getDefaultURI(), getClass().getClassLoader());
+
+        CaffeineConfiguration<Object, Object> bounded = new CaffeineConfiguration<>();
+        bounded.setMaximumSize(OptionalLong.of(maxSize));
+        bounded.setExpireAfterWrite(OptionalLong.of(ttl.toNanos()));
+        bounded.setStatisticsEnabled(true);
+        for (String region : BOUNDED_REGIONS) {
+            createIfAbsent(cacheManager, region, bounded);
+        }
+        createIfAbsent(cacheManager, RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME,
+                new MutableConfiguration<>());
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer hibernateCacheManagerCustomizer(CacheManager hibernateCacheManager) {
+        return properties -> properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+    }
+
+    // The provider's default manager is shared per class loader, so a second
+    // application context in the same JVM finds the regions already there
+    private static void createIfAbsent(CacheManager cacheManager, String name, CompleteConfiguration<Object, Object> config) {
+        if (cacheManager.getCache(name) == null) {
+            cacheManager.createCache(name, config);
+        }
+    }
+}
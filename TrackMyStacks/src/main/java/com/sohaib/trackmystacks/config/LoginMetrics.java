@@ -0,0 +1,37 @@
+package com.sohaib.trackmystacks.config;
+
+import org.springframework.context.event.EventListener;
+import org.springframework.security.authentication.event.AbstractAuthenticationFailureEvent;
+import org.springframework.security.authentication.event.AuthenticationSuccessEvent;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Counts form logins by outcome (trackmystacks.logins{outcome=success|failure})
+ * from the events Spring Security publishes; rates come from the scraper.
+ */
+@Component
+public class LoginMetrics {
+
+    private final Counter success;
+    private final Counter failure;
+
+    public LoginMetrics(MeterRegistry registry) {
+        this.success = Counter.builder("trackmystacks.logins").tag("outcome", "success")
+                .description("Login attempts").register(registry);
+        this.failure = Counter.builder("trackmystacks.logins").tag("outcome", "failure")
+                .description("Login attempts").register(registry);
+    }
+
+    @EventListener
+    public void onSuccess(AuthenticationSuccessEvent event) {
+        success.increment();
+    }
+
+    @EventListener
+    public void onFailure(AbstractAuthenticationFailureEvent event) {
+        failure.increment();
+    }
+}
@@ -0,0 +1,27 @@
+package com.sohaib.trackmystacks.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Application meters on top of what Actuator binds by itself (HTTP requests,
+ * Spring Data repository calls, the Hikari pool, Hibernate statistics, JVM).
+ *
+ * TimedAspect turns @Timed on the services into timers, all named
+ * trackmystacks.service and told apart by their class and method tags.
+ * Everything is scraped from /actuator/prometheus on the management port.
+ */
+@Configuration
+public class MetricsConfig {
+
+    /** Name of the timer every @Timed service method records into. */
+    public static final String SERVICE_TIMER = "trackmystacks.service";
+
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry registry) {
+        return new TimedAspect(registry);
+    }
+}
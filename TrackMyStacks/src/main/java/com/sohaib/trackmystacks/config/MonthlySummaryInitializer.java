@@ -0,0 +1,49 @@
+package com.sohaib.trackmystacks.config;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.stereotype.Component;
+
+import com.sohaib.trackmystacks.service.MonthlySummaryService;
+
+/**
+ * Keeps the monthly_summaries rollup usable on existing databases.
+ *
+ * On every start the table is backfilled if it is empty (databases created
+ * before the rollup existed). Two optional command-line flags help operators:
+ *   --rebuild-summaries   recompute every row from expenses and paychecks
+ *   --verify-summaries    report any month whose stored totals have drifted
+ */
+@Component
+public class MonthlySummaryInitializer implements CommandLineRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(MonthlySummaryInitializer.class);
+
+    @Autowired
+    private MonthlySummaryService monthlySummaryService;
+
+    @Override
+    public void run(String... args) {
+        List<String> flags = Arrays.asList(args);
+
+        if (flags.contains("--rebuild-summaries") || monthlySummaryService.isEmpty()) {
+            int rows = monthlySummaryService.rebuildAll();
+            log.info("Monthly summaries rebuilt: {} month rows.", rows);
+        }
+
+        if (flags.contains("--verify-summaries")) {
+            List<String> mismatches = monthlySummaryService.verify();
+            if (mismatches.isEmpty()) {
+                log.info("Monthly summaries verified: no drift found.");
+            } else {
+                log.warn("Monthly summaries out of sync ({} months):", mismatches.size());
+                mismatches.forEach(m -> log.warn("  {}", m));
+            }
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.sohaib.trackmystacks.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Component;
+
+/**
+ * Picks the BCrypt cost factor for new password hashes.
+ *
+ * With trackmystacks.password-hash.strength set, that value is used as is.
+ * Otherwise one hash is timed at min-strength when the app starts and the
+ * highest cost whose estimated time (doubling per step) stays within
+ * target-ms is chosen, clamped to [min-strength, max-strength]. Both bounds
+ * default to 10, the cost plain BCryptPasswordEncoder uses, so nothing is
+ * timed unless max-strength is raised. Existing hashes keep verifying at
+ * whatever cost they were made with; weaker ones are upgraded on the next
+ * successful login (see CustomUserDetailsService).
+ */
+@Component
+public class PasswordHashCalibrator {
+
+    private static final Logger log = LoggerFactory.getLogger(PasswordHashCalibrator.class);
+    private static final String SAMPLE_PASSWORD = "calibration-sample";
+
+    private final int strength;
+
+    public PasswordHashCalibrator(
+            @Value("${trackmystacks.password-hash.strength:0}") int fixedStrength,
+            @Value("${trackmystacks.password-hash.target-ms:100}") long targetMillis,
+            @Value("${trackmystacks.password-hash.min-strength:10}") int minStrength,
+            @Value("${trackmystacks.password-hash.max-strength:10}") int maxStrength) {
+        if (fixedStrength > 0) {
+            this.strength = fixedStrength;
+            log.info("Password hashing: BCrypt cost {} (configured)", strength);
+            return;
+        }
+        if (maxStrength <= minStrength) {
+            this.strength = minStrength;
+            log.info("Password hashing: BCrypt cost {} (min-strength)", strength);
+            return;
+        }
+        double millisAtMin = timeHash(minStrength);
+        this.strength = choose(minStrength, maxStrength, millisAtMin, targetMillis);
+        log.info("Password hashing: BCrypt cost {} (cost {} took {} ms, target {} ms)",
+                strength, minStrength, Math.round(millisAtMin), targetMillis);
+    }
+
+    /** Cost factor new hashes are created with. */
+    public int getStrength() {
+        return strength;
+    }
+
+    /**
+     * The highest cost in [{@code min}, {@code max}] whose estimated hash time stays
+     * within {@code targetMillis}, given one hash at {@code min} takes {@code millisAtMin};
+     * {@code min} if even that is over the target.
+     */
+    static int choose(int min, int max, double millisAtMin, long targetMillis) {
+        int chosen = min;
+        while (chosen < max && millisAtMin * (1L << (chosen + 1 - min)) <= targetMillis) {
+            chosen++;
+        }
+        return chosen;
+    }
+
+    /** Milliseconds one hash takes at the given cost, best of three after a warm-up. */
+    public static double timeHash(int strength) {
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(strength);
+        String hash = encoder.encode(SAMPLE_PASSWORD);
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < 3; i++) {
+            long start = System.nanoTime();
+            encoder.matches(SAMPLE_PASSWORD, hash);
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return best / 1_000_000.0;
+    }
+}
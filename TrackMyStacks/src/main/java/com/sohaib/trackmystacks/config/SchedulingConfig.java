@@ -0,0 +1,14 @@
+package com.sohaib.trackmystacks.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Turns on @Scheduled for the whole application: the search index catch-up
+ * (ExpenseSearchIndexer) and, on PostgreSQL, partition upkeep
+ * (ExpensePartitionMaintainer).
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
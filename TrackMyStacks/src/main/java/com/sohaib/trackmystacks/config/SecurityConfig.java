@@ -2,11 +2,16 @@
 package com.sohaib.trackmystacks.config;
 
 // Importing necessary classes for Spring Security configuration
+import java.util.Map;
+
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 
@@ -14,12 +19,26 @@ import org.springframework.security.web.SecurityFilterChain;
 @Configuration
 @EnableWebSecurity
 public class SecurityConfig {
-    // This bean defines the password encoder to be used for hashing passwords. In this case, we are using BCryptPasswordEncoder, which is a strong hashing algorithm that includes a salt to protect against rainbow table attacks.
+    // This bean defines the password encoder to be used for hashing passwords. New hashes are BCrypt (a strong, salted algorithm that resists rainbow table attacks) at the cost factor chosen by PasswordHashCalibrator, stored with a "{bcrypt}" prefix so the algorithm can change later without breaking old hashes. Hashes saved before the prefix existed (plain "$2a$10$...") still verify through the default encoder. After a successful login, hashes that are unprefixed or weaker than the current cost are rehashed (see CustomUserDetailsService.updatePassword).
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(PasswordHashCalibrator calibrator) {
+        DelegatingPasswordEncoder encoder = new DelegatingPasswordEncoder(
+                "bcrypt", Map.of("bcrypt", new BCryptPasswordEncoder(calibrator.getStrength())));
+        encoder.setDefaultPasswordEncoderForMatches(new BCryptPasswordEncoder());
+        return encoder;
     }
     
+    // Actuator endpoints get their own chain, checked first. They are only served on the management port, which listens on localhost (see application.properties), so the local metrics scraper needs no login.
+    @Bean
+    @Order(1)
+    public SecurityFilterChain managementFilterChain(HttpSecurity http) throws Exception {
+        http
+            .securityMatcher(EndpointRequest.toAnyEndpoint())
+            .authorizeHttpRequests(auth -> auth.anyRequest().permitAll())
+            .csrf(csrf -> csrf.disable());
+        return http.build();
+    }
+
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
         http
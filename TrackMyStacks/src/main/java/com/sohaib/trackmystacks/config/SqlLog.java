@@ -0,0 +1,136 @@
+package com.sohaib.trackmystacks.config;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Decides which JDBC statements get logged, and writes them off the request thread.
+ *
+ * Every statement is timed (see {@link SqlLogDataSource}). Statements that take at
+ * least trackmystacks.sql-log.slow-threshold are logged at WARN with their bind
+ * parameters and the application method that issued them. A random
+ * trackmystacks.sql-log.sample-rate fraction of the faster ones is logged at
+ * INFO the same way. Nothing else is logged, so the cost for most statements is
+ * one timer update. Lines go through a bounded queue to one writer thread; when
+ * the queue is full, lines are dropped and counted rather than slowing
+ * requests down.
+ *
+ * Logger: trackmystacks.sql. Timer: trackmystacks.jdbc.statements{kind}.
+ */
+public class SqlLog {
+
+    private static final Logger log = LoggerFactory.getLogger("trackmystacks.sql");
+    private static final String APP_PACKAGE = "com.sohaib.trackmystacks.";
+    private static final int MAX_SQL_LENGTH = 2000;
+    private static final int MAX_VALUE_LENGTH = 100;
+
+    enum Kind { QUERY, UPDATE, BATCH }
+
+    private final long slowNanos;
+    private final double sampleRate;
+    private final ThreadPoolExecutor writer;
+    private final AtomicLong dropped = new AtomicLong();
+    private final EnumMap<Kind, Timer> timers = new EnumMap<>(Kind.class);
+
+    public SqlLog(Duration slowThreshold, double sampleRate, int queueSize) {
+        this.slowNanos = slowThreshold.toNanos();
+        this.sampleRate = sampleRate;
+        this.writer = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(queueSize),
+                r -> {
+                    Thread t = new Thread(r, "sql-log-writer");
+                    t.setDaemon(true);
+                    return t;
+                },
+                (r, executor) -> dropped.incrementAndGet());
+        // Created before the application's MeterRegistry exists (the DataSource is wrapped early);
+        // the global composite hands the samples to it once Boot registers it
+        for (Kind kind : Kind.values()) {
+            timers.put(kind, Timer.builder("trackmystacks.jdbc.statements")
+                    .tag("kind", kind.name().toLowerCase(Locale.ROOT))
+                    .register(Metrics.globalRegistry));
+        }
+    }
+
+    /**
+     * Called after each execute. {@code params} is only read for statements that get logged.
+     * {@code batchSize} is 0 for single statements.
+     */
+    void record(Kind kind, String sql, long nanos, List<Object> params, int batchSize) {
+        timers.get(kind).record(nanos, TimeUnit.NANOSECONDS);
+
+        boolean slow = nanos >= slowNanos;
+        if (!slow && (sampleRate <= 0 || ThreadLocalRandom.current().nextDouble() >= sampleRate)) {
+            return;
+        }
+        // Captured here, on the caller's thread; formatting happens on the writer
+        String caller = callSite();
+        String paramText = params == null || sql.toLowerCase(Locale.ROOT).contains("password")
+                ? "" : " params=" + format(params);
+        String batch = batchSize > 0 ? " batch=" + batchSize : "";
+        writer.execute(() -> {
+            long lost = dropped.getAndSet(0);
+            if (lost > 0) {
+                log.warn("{} SQL log lines dropped (queue full)", lost);
+            }
+            String line = String.format("%.1f ms [%s]%s %s%s", nanos / 1e6, caller, batch, truncate(sql, MAX_SQL_LENGTH), paramText);
+            if (slow) {
+                log.warn("Slow SQL {}", line);
+            } else {
+                log.info("Sampled SQL {}", line);
+            }
+        });
+    }
+
+    // First application frame that isn't this package's JDBC plumbing or a Spring proxy
+    private static String callSite() {
+        Optional<StackWalker.StackFrame> frame = StackWalker.getInstance().walk(frames -> frames
+                .filter(f -> f.getClassName().startsWith(APP_PACKAGE))
+                .filter(f -> !f.getClassName().startsWith(SqlLog.class.getName()))
+                .filter(f -> !f.getClassName().startsWith(SqlLogDataSource.class.getName()))
+                .filter(f -> !f.getClassName().contains("$$"))
+                .findFirst());
+        return frame.map(f -> f.getClassName().substring(f.getClassName().lastIndexOf('.') + 1)
+                        + "." + f.getMethodName() + ":" + f.getLineNumber())
+                .orElse("framework");
+    }
+
+    private static String format(List<Object> params) {
+        StringBuilder sb = new StringBuilder("[");
+        for (int i = 0; i < params.size(); i++) {
+            if (i > 0) {
+                sb.append(", ");
+            }
+            Object value = params.get(i);
+            if (value instanceof byte[] bytes) {
+                sb.append('<').append(bytes.length).append(" bytes>");
+            } else if (value instanceof CharSequence text) {
+                sb.append('\'').append(truncate(text.toString(), MAX_VALUE_LENGTH)).append('\'');
+            } else {
+                sb.append(value);
+            }
+        }
+        return sb.append(']').toString();
+    }
+
+    private static String truncate(String text, int max) {
+        return text.length() <= max ? text : text.substring(0, max) + "...";
+    }
+
+    void shutdown() {
+        writer.shutdown();
+    }
+}
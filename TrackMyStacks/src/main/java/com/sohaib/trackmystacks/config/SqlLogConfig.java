@@ -0,0 +1,45 @@
+package com.sohaib.trackmystacks.config;
+
+import java.time.Duration;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Wraps the application's DataSource in a {@link SqlLogDataSource}, replacing
+ * Hibernate's show-sql echo with timed, threshold-and-sample logging (see
+ * {@link SqlLog}). Set trackmystacks.sql-log.enabled=false to leave the
+ * DataSource untouched.
+ */
+@Configuration
+@ConditionalOnProperty(name = "trackmystacks.sql-log.enabled", matchIfMissing = true)
+public class SqlLogConfig {
+
+    @Bean(destroyMethod = "shutdown")
+    public static SqlLog sqlLog(
+            @Value("${trackmystacks.sql-log.slow-threshold:200ms}") Duration slowThreshold,
+            @Value("${trackmystacks.sql-log.sample-rate:0.001}") double sampleRate,
+            @Value("${trackmystacks.sql-log.queue-size:1000}") int queueSize) {
+        return new SqlLog(slowThreshold, sampleRate, queueSize);
+    }
+
+    // Static, so post-processing is set up before the DataSource bean is created
+    @Bean
+    public static BeanPostProcessor sqlLogDataSourceWrapper(ObjectProvider<SqlLog> sqlLog) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof SqlLogDataSource)) {
+                    return new SqlLogDataSource(dataSource, sqlLog.getObject());
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,168 @@
+package com.sohaib.trackmystacks.config;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+/**
+ * Times every statement executed through the wrapped DataSource and hands the
+ * result to {@link SqlLog}.
+ *
+ * Connections and statements are JDK proxies around the pool's own objects.
+ * Prepared statements remember their SQL and the values set on them, so a
+ * logged line shows what was actually bound. Extends DelegatingDataSource so
+ * Actuator still finds the Hikari pool underneath for its metrics.
+ */
+public class SqlLogDataSource extends DelegatingDataSource {
+
+    private final SqlLog sqlLog;
+
+    public SqlLogDataSource(DataSource target, SqlLog sqlLog) {
+        super(target);
+        this.sqlLog = sqlLog;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return wrap(obtainTargetDataSource().getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return wrap(obtainTargetDataSource().getConnection(username, password));
+    }
+
+    private Connection wrap(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(SqlLogDataSource.class.getClassLoader(),
+                new Class<?>[] { Connection.class }, new ConnectionHandler(connection));
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private final class ConnectionHandler implements InvocationHandler {
+
+        private final Connection target;
+
+        ConnectionHandler(Connection target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object result = SqlLogDataSource.invoke(target, method, args);
+            String name = method.getName();
+            if (result instanceof CallableStatement statement && name.equals("prepareCall")) {
+                return wrap(statement, CallableStatement.class, (Connection) proxy, (String) args[0]);
+            }
+            if (result instanceof PreparedStatement statement && name.equals("prepareStatement")) {
+                return wrap(statement, PreparedStatement.class, (Connection) proxy, (String) args[0]);
+            }
+            if (result instanceof Statement statement && name.equals("createStatement")) {
+                return wrap(statement, Statement.class, (Connection) proxy, null);
+            }
+            return result;
+        }
+
+        private Object wrap(Statement statement, Class<?> type, Connection connection, String sql) {
+            return Proxy.newProxyInstance(SqlLogDataSource.class.getClassLoader(), new Class<?>[] { type },
+                    new StatementHandler(statement, connection, sql));
+        }
+    }
+
+    private final class StatementHandler implements InvocationHandler {
+
+        private final Statement target;
+        private final Connection connection;
+        // Null for plain statements, which get their SQL on each execute call
+        private final String preparedSql;
+        private final List<Object> params = new ArrayList<>();
+        private final List<String> batchSql = new ArrayList<>();
+        private int batchSize;
+
+        StatementHandler(Statement target, Connection connection, String preparedSql) {
+            this.target = target;
+            this.connection = connection;
+            this.preparedSql = preparedSql;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (name.startsWith("execute")) {
+                return execute(method, args);
+            }
+            if (name.equals("getConnection")) {
+                return connection;
+            }
+            if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer index) {
+                // setString(1, ...), setNull(2, type), ...: a bind parameter
+                bind(index, name.equals("setNull") ? null : args[1]);
+            } else if (name.equals("clearParameters")) {
+                params.clear();
+            } else if (name.equals("addBatch")) {
+                batchSize++;
+                if (args != null && args.length == 1) {
+                    batchSql.add((String) args[0]);
+                }
+            } else if (name.equals("clearBatch")) {
+                batchSize = 0;
+                batchSql.clear();
+            }
+            return SqlLogDataSource.invoke(target, method, args);
+        }
+
+        private Object execute(Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            boolean batch = name.endsWith("Batch");
+            String sql = args != null && args.length > 0 && args[0] instanceof String text ? text
+                    : preparedSql != null ? preparedSql
+                    : String.join("; ", batchSql);
+            SqlLog.Kind kind = batch ? SqlLog.Kind.BATCH
+                    : name.equals("executeQuery") || name.equals("execute") && isQuery(sql) ? SqlLog.Kind.QUERY
+                    : SqlLog.Kind.UPDATE;
+            int rows = batch ? batchSize : 0;
+
+            long start = System.nanoTime();
+            try {
+                return SqlLogDataSource.invoke(target, method, args);
+            } finally {
+                long nanos = System.nanoTime() - start;
+                sqlLog.record(kind, sql, nanos, preparedSql != null ? params : null, rows);
+                if (batch) {
+                    batchSize = 0;
+                    batchSql.clear();
+                }
+            }
+        }
+
+        private void bind(int index, Object value) {
+            while (params.size() < index) {
+                params.add(null);
+            }
+            params.set(index - 1, value);
+        }
+    }
+
+    private static boolean isQuery(String sql) {
+        String start = sql.stripLeading();
+        return start.regionMatches(true, 0, "select", 0, 6) || start.regionMatches(true, 0, "with", 0, 4);
+    }
+}
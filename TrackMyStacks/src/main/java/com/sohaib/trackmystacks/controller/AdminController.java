@@ -1,6 +1,10 @@
 package com.sohaib.trackmystacks.controller;
 
+import java.util.List;
+import java.util.Map;
+
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -11,6 +15,11 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
 import com.sohaib.trackmystacks.service.CategoryService;
+import com.sohaib.trackmystacks.service.DashboardCache;
+import com.sohaib.trackmystacks.service.EntityCache;
+import com.sohaib.trackmystacks.service.ExpenseLedgerCache;
+import com.sohaib.trackmystacks.service.ExpenseSearchIndexer;
+import com.sohaib.trackmystacks.service.MonthlySummaryService;
 import com.sohaib.trackmystacks.service.UserService;
 
 @Controller
@@ -23,6 +32,21 @@ public class AdminController {
     @Autowired
     private CategoryService categoryService;
     
+    @Autowired
+    private MonthlySummaryService monthlySummaryService;
+    
+    @Autowired
+    private DashboardCache dashboardCache;
+    
+    @Autowired
+    private EntityCache entityCache;
+
+    @Autowired
+    private ExpenseLedgerCache ledgerCache;
+
+    @Autowired
+    private ExpenseSearchIndexer searchIndexer;
+    
     @GetMapping
     public String adminPanel(Model model) {
         model.addAttribute("users", userService.getAllUsers());
@@ -77,8 +101,61 @@ public class AdminController {
     
     @PostMapping("/delete-category/{id}")
     public String deleteCategory(@PathVariable Long id, RedirectAttributes redirectAttributes) {
-        categoryService.deleteCategory(id);
-        redirectAttributes.addFlashAttribute("success", "Category deleted successfully!");
+        if (categoryService.deleteCategory(id)) {
+            redirectAttributes.addFlashAttribute("success", "Category deleted successfully!");
+        } else {
+            redirectAttributes.addFlashAttribute("error", "Category is still used by expenses!");
+        }
+        return "redirect:/admin";
+    }
+    
+    @PostMapping("/summaries/rebuild")
+    public String rebuildSummaries(RedirectAttributes redirectAttributes) {
+        int rows = monthlySummaryService.rebuildAll();
+        redirectAttributes.addFlashAttribute("success", "Monthly summaries rebuilt (" + rows + " month rows).");
         return "redirect:/admin";
     }
+    
+    @PostMapping("/summaries/verify")
+    public String verifySummaries(RedirectAttributes redirectAttributes) {
+        List<String> mismatches = monthlySummaryService.verify();
+        if (mismatches.isEmpty()) {
+            redirectAttributes.addFlashAttribute("success", "Monthly summaries are consistent with expenses and paychecks.");
+        } else {
+            redirectAttributes.addFlashAttribute("error", mismatches.size() + " month(s) out of sync, e.g. "
+                    + mismatches.get(0) + ". Use Rebuild to fix.");
+        }
+        return "redirect:/admin";
+    }
+    
+    @PostMapping("/search-index/rebuild")
+    public String rebuildSearchIndex(RedirectAttributes redirectAttributes) {
+        searchIndexer.reindexAll();
+        redirectAttributes.addFlashAttribute("success", "Search index rebuild started; progress is on /admin/search-index.");
+        return "redirect:/admin";
+    }
+    
+    // GET /admin/cache-stats  →  dashboard snapshot cache hit/miss counters as JSON
+    @GetMapping("/cache-stats")
+    public ResponseEntity<Map<String, Object>> cacheStats() {
+        return ResponseEntity.ok(dashboardCache.getStats());
+    }
+
+    // GET /admin/cache-stats/entities  →  second-level cache (users, categories) counters per region
+    @GetMapping("/cache-stats/entities")
+    public ResponseEntity<Map<String, Object>> entityCacheStats() {
+        return ResponseEntity.ok(entityCache.getStats());
+    }
+
+    // GET /admin/cache-stats/ledgers  →  in-memory expense ledgers: count, rows held, hit/miss counters
+    @GetMapping("/cache-stats/ledgers")
+    public ResponseEntity<Map<String, Object>> ledgerCacheStats() {
+        return ResponseEntity.ok(ledgerCache.getStats());
+    }
+
+    // GET /admin/search-index  →  full-text index: documents, queued changes, rebuild counters
+    @GetMapping("/search-index")
+    public ResponseEntity<Map<String, Object>> searchIndexStats() {
+        return ResponseEntity.ok(searchIndexer.getStats());
+    }
 }
\ No newline at end of file
@@ -0,0 +1,67 @@
+package com.sohaib.trackmystacks.controller;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+
+import com.sohaib.trackmystacks.config.CurrentUser;
+import com.sohaib.trackmystacks.dto.CategoryMonthTotal;
+import com.sohaib.trackmystacks.dto.CategoryTotal;
+import com.sohaib.trackmystacks.dto.MonthTotal;
+import com.sohaib.trackmystacks.dto.YearOverYear;
+import com.sohaib.trackmystacks.dto.YearTotal;
+import com.sohaib.trackmystacks.model.User;
+import com.sohaib.trackmystacks.service.AnalyticsService;
+
+/**
+ * JSON analytics for the current user's spending.
+ * All endpoints take an optional {@code months} window (default 6, max 120).
+ */
+@Controller
+@RequestMapping("/analytics")
+public class AnalyticsController {
+
+    @Autowired
+    private AnalyticsService analyticsService;
+
+    // GET /analytics/monthly?months=24  →  total per month, gaps filled with zero
+    @GetMapping("/monthly")
+    public ResponseEntity<List<MonthTotal>> monthly(
+            @RequestParam(defaultValue = "" + AnalyticsService.DEFAULT_WINDOW_MONTHS) int months,
+            @CurrentUser User user) {
+        return ResponseEntity.ok(analyticsService.getMonthlyTotals(user, months));
+    }
+
+    // GET /analytics/categories?months=12  →  total per category, largest first
+    @GetMapping("/categories")
+    public ResponseEntity<List<CategoryTotal>> categories(
+            @RequestParam(defaultValue = "" + AnalyticsService.DEFAULT_WINDOW_MONTHS) int months,
+            @CurrentUser User user) {
+        return ResponseEntity.ok(analyticsService.getCategoryTotals(user, months));
+    }
+
+    // GET /analytics/month-by-category?months=12  →  sparse month × category matrix
+    @GetMapping("/month-by-category")
+    public ResponseEntity<List<CategoryMonthTotal>> monthByCategory(
+            @RequestParam(defaultValue = "" + AnalyticsService.DEFAULT_WINDOW_MONTHS) int months,
+            @CurrentUser User user) {
+        return ResponseEntity.ok(analyticsService.getMonthlyCategoryTotals(user, months));
+    }
+
+    // GET /analytics/yearly  →  total per calendar year
+    @GetMapping("/yearly")
+    public ResponseEntity<List<YearTotal>> yearly(@CurrentUser User user) {
+        return ResponseEntity.ok(analyticsService.getYearlyTotals(user));
+    }
+
+    // GET /analytics/year-over-year  →  this year vs last year, Jan..Dec
+    @GetMapping("/year-over-year")
+    public ResponseEntity<List<YearOverYear>> yearOverYear(@CurrentUser User user) {
+        return ResponseEntity.ok(analyticsService.getYearOverYear(user));
+    }
+}
@@ -1,8 +1,12 @@
 package com.sohaib.trackmystacks.controller;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -12,10 +16,11 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.sohaib.trackmystacks.dto.BackupData;
+import com.sohaib.trackmystacks.dto.ImportResult;
+import com.sohaib.trackmystacks.service.BackupCodec;
 import com.sohaib.trackmystacks.service.BackupService;
 
 /**
@@ -28,60 +33,61 @@ import com.sohaib.trackmystacks.service.BackupService;
 @RequestMapping("/admin/backup")
 public class BackupController {
 
-    @Autowired
-    private BackupService backupService;
+    // Sortable, and distinct for several deltas taken on the same day
+    private static final DateTimeFormatter DELTA_STAMP = DateTimeFormatter.ofPattern("yyyy-MM-dd-HHmmss");
 
     @Autowired
-    private ObjectMapper objectMapper;
+    private BackupService backupService;
 
     // -------------------------------------------------------------------------
-    // Export  →  GET /admin/backup/export
-    // Returns a pretty-printed JSON file as a browser download.
+    // Export  →  GET /admin/backup/export?format=json|gzip|smile&since=<exportedAt>
+    // Streams the backup as a browser download (pretty JSON by default).
+    // Rows are written as they are read, so the dataset is never held in memory.
+    // With `since` (the exportedAt of an earlier backup) only changes after it
+    // are exported – a delta to restore on top of that backup.
     // -------------------------------------------------------------------------
     @GetMapping("/export")
-    public ResponseEntity<byte[]> exportBackup() {
+    public ResponseEntity<StreamingResponseBody> exportBackup(
+            @RequestParam(required = false) String format,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime since) {
+        BackupCodec.Format fmt;
         try {
-            BackupData data = backupService.exportData();
-            byte[] json = objectMapper.writerWithDefaultPrettyPrinter().writeValueAsBytes(data);
-            String filename = "trackmystacks-backup-" + LocalDate.now() + ".json";
+            fmt = BackupCodec.Format.fromParam(format);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
 
-            return ResponseEntity.ok()
-                    .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
-                    .contentType(MediaType.APPLICATION_JSON)
-                    .body(json);
+        String filename = since == null
+                ? "trackmystacks-backup-" + LocalDate.now() + "." + fmt.getExtension()
+                : "trackmystacks-delta-" + LocalDateTime.now().format(DELTA_STAMP) + "." + fmt.getExtension();
+        StreamingResponseBody body = out -> backupService.exportTo(out, fmt, since);
 
-        } catch (Exception e) {
-            byte[] error = ("Export failed: " + e.getMessage()).getBytes();
-            return ResponseEntity.internalServerError()
-                    .contentType(MediaType.TEXT_PLAIN)
-                    .body(error);
-        }
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
+                .contentType(MediaType.parseMediaType(fmt.getContentType()))
+                .body(body);
     }
 
     // -------------------------------------------------------------------------
     // Import  →  POST /admin/backup/import
-    // Accepts a multipart JSON file upload and restores the snapshot.
+    // Accepts one full backup plus, optionally, the deltas taken after it
+    // (JSON, gzipped JSON or Smile – detected from the content) and restores
+    // them in order, parsing each file as a stream rather than loading it first.
     // -------------------------------------------------------------------------
     @PostMapping("/import")
     public String importBackup(
-            @RequestParam("backupFile") MultipartFile file,
+            @RequestParam("backupFile") List<MultipartFile> files,
             RedirectAttributes redirectAttributes) {
 
-        if (file.isEmpty()) {
+        if (files.isEmpty() || files.stream().anyMatch(MultipartFile::isEmpty)) {
             redirectAttributes.addFlashAttribute("error", "Please select a backup file to import.");
             return "redirect:/admin";
         }
 
-        if (!file.getOriginalFilename().endsWith(".json")) {
-            redirectAttributes.addFlashAttribute("error", "Only .json backup files are supported.");
-            return "redirect:/admin";
-        }
-
         try {
-            BackupData data = objectMapper.readValue(file.getBytes(), BackupData.class);
-            backupService.importData(data);
+            ImportResult result = backupService.importFrom(files);
             redirectAttributes.addFlashAttribute("success",
-                    "Backup imported successfully! All data has been restored from the file.");
+                    "Backup imported successfully! Restored " + result + ".");
         } catch (Exception e) {
             redirectAttributes.addFlashAttribute("error",
                     "Import failed — " + e.getMessage() + ". Your existing data has not been changed.");
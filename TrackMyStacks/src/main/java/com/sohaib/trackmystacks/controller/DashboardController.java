@@ -5,39 +5,42 @@ import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 
+import com.sohaib.trackmystacks.config.CurrentUser;
+import com.sohaib.trackmystacks.dto.DashboardSnapshot;
 import com.sohaib.trackmystacks.model.User;
-import com.sohaib.trackmystacks.service.CategoryService;
-import com.sohaib.trackmystacks.service.ExpenseService;
-import com.sohaib.trackmystacks.service.PaycheckService;
-import com.sohaib.trackmystacks.service.UserService;
+import com.sohaib.trackmystacks.service.AnalyticsService;
+import com.sohaib.trackmystacks.service.DashboardService;
 
 @Controller
 public class DashboardController {
     
     @Autowired
-    private UserService userService;
-    
-    @Autowired
-    private ExpenseService expenseService;
-    
-    @Autowired
-    private CategoryService categoryService;
+    private DashboardService dashboardService;
 
     @Autowired
-    private PaycheckService paycheckService;
+    private AnalyticsService analyticsService;
     
     @GetMapping("/dashboard")
-    public String dashboard(Authentication auth, Model model) {
-        User user = userService.findByUsername(auth.getName())
-            .orElseThrow(() -> new RuntimeException("User not found"));
+    public String dashboard(
+            @RequestParam(defaultValue = "" + AnalyticsService.DEFAULT_WINDOW_MONTHS) int months,
+            @CurrentUser User user,
+            Authentication auth,
+            Model model) {
+        
+        int window = analyticsService.normalizeWindow(months);
+        DashboardSnapshot snapshot = dashboardService.getSnapshot(user, window);
         
         model.addAttribute("username", auth.getName());
-        model.addAttribute("expenses", expenseService.getAllExpensesByUser(user));
-        model.addAttribute("total", expenseService.getTotalByUser(user));
-        model.addAttribute("categories", categoryService.getAllCategories());
-        model.addAttribute("paychecks", paycheckService.getAllPaychecksByUser(user));
-        model.addAttribute("monthlyData", paycheckService.getMonthlyComparison(user, 6));
+        model.addAttribute("expenses", snapshot.getExpenses());
+        model.addAttribute("nextCursor", snapshot.getNextCursor());
+        model.addAttribute("total", snapshot.getTotal());
+        model.addAttribute("categories", snapshot.getCategories());
+        model.addAttribute("paychecks", snapshot.getPaychecks());
+        model.addAttribute("months", window);
+        model.addAttribute("windows", AnalyticsService.PRESET_WINDOWS);
+        model.addAttribute("monthlyData", snapshot.getMonthlyData());
         
         return "dashboard";
     }
@@ -1,10 +1,9 @@
 package com.sohaib.trackmystacks.controller;
 
+import java.io.ByteArrayOutputStream;
 import java.math.BigDecimal;
 import java.time.LocalDate;
-import java.time.LocalDateTime;
 import java.util.List;
-import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpHeaders;
@@ -20,12 +19,17 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sohaib.trackmystacks.config.CurrentUser;
+import com.sohaib.trackmystacks.dto.ExpensePage;
+import com.sohaib.trackmystacks.dto.ExpenseSearchResult;
+import com.sohaib.trackmystacks.dto.ImportResult;
 import com.sohaib.trackmystacks.dto.UserBackupData;
 import com.sohaib.trackmystacks.model.Expense;
 import com.sohaib.trackmystacks.model.User;
+import com.sohaib.trackmystacks.service.BackupCodec;
+import com.sohaib.trackmystacks.service.BackupMetrics;
+import com.sohaib.trackmystacks.service.BackupService;
 import com.sohaib.trackmystacks.service.ExpenseService;
-import com.sohaib.trackmystacks.service.UserService;
 
 @Controller
 @RequestMapping("/expenses")
@@ -35,10 +39,13 @@ public class ExpenseController {
     private ExpenseService expenseService;
     
     @Autowired
-    private UserService userService;
+    private BackupCodec backupCodec;
 
     @Autowired
-    private ObjectMapper objectMapper;
+    private BackupService backupService;
+
+    @Autowired
+    private BackupMetrics backupMetrics;
 
     @PostMapping("/add")
     public String addExpense(
@@ -47,14 +54,15 @@ public class ExpenseController {
             @RequestParam String description,
             @RequestParam LocalDate date,
             @RequestParam(required = false) boolean recurring,
-            Authentication auth,
+            @CurrentUser User user,
             RedirectAttributes redirectAttributes) {
         
-        User user = userService.findByUsername(auth.getName())
-            .orElseThrow(() -> new RuntimeException("User not found"));
-        
-        expenseService.createExpense(user, amount, category, description, date, recurring);
-        redirectAttributes.addFlashAttribute("success", "Expense added successfully!");
+        try {
+            expenseService.createExpense(user, amount, category, description, date, recurring);
+            redirectAttributes.addFlashAttribute("success", "Expense added successfully!");
+        } catch (IllegalArgumentException e) {
+            redirectAttributes.addFlashAttribute("error", "Category no longer exists: " + category);
+        }
         
         return "redirect:/dashboard";
     }
@@ -80,47 +88,103 @@ public class ExpenseController {
             @RequestParam(required = false) boolean recurring,
             RedirectAttributes redirectAttributes) {
         
-        expenseService.updateExpense(id, amount, category, description, date, recurring);
-        redirectAttributes.addFlashAttribute("success", "Expense updated successfully!");
+        try {
+            expenseService.updateExpense(id, amount, category, description, date, recurring);
+            redirectAttributes.addFlashAttribute("success", "Expense updated successfully!");
+        } catch (IllegalArgumentException e) {
+            redirectAttributes.addFlashAttribute("error", "Category no longer exists: " + category);
+        }
         
         return "redirect:/dashboard";
     }
 
     // -------------------------------------------------------------------------
-    // Backup: Export  →  GET /expenses/backup/export
-    // Downloads the current user's expenses as a JSON file.
+    // Feed  →  GET /expenses/page?cursor=...&size=...
+    // Returns the next slice of the current user's expenses as JSON.
+    // Used by the dashboard's infinite scroll; omit cursor for the first page.
+    // -------------------------------------------------------------------------
+    @GetMapping("/page")
+    public ResponseEntity<ExpensePage> getExpensePage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + ExpenseService.DEFAULT_PAGE_SIZE) int size,
+            @CurrentUser User user) {
+
+        try {
+            return ResponseEntity.ok(expenseService.getExpensePage(user, cursor, size));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    // -------------------------------------------------------------------------
+    // Category feed  →  GET /expenses/category/{id}?cursor=...&size=...
+    // The feed above limited to one category (by id), same cursor and JSON.
+    // -------------------------------------------------------------------------
+    @GetMapping("/category/{id}")
+    public ResponseEntity<ExpensePage> getCategoryExpensePage(
+            @PathVariable Long id,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + ExpenseService.DEFAULT_PAGE_SIZE) int size,
+            @CurrentUser User user) {
+
+        try {
+            return ResponseEntity.ok(expenseService.getCategoryExpensePage(user, id, cursor, size));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    // -------------------------------------------------------------------------
+    // Search  →  GET /expenses/search?q=...&page=...&size=...
+    // Ranked full-text matches on description and category as JSON, best first.
+    // Pages are numbered from 0; see ExpenseSearchResult.
+    // -------------------------------------------------------------------------
+    @GetMapping("/search")
+    public ResponseEntity<ExpenseSearchResult> searchExpenses(
+            @RequestParam("q") String query,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "" + ExpenseService.DEFAULT_PAGE_SIZE) int size,
+            @CurrentUser User user) {
+
+        try {
+            return ResponseEntity.ok(expenseService.searchExpenses(user, query, page, size));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    // -------------------------------------------------------------------------
+    // Backup: Export  →  GET /expenses/backup/export?format=json|gzip|smile
+    // Downloads the current user's expenses (pretty JSON by default).
     // -------------------------------------------------------------------------
     @GetMapping("/backup/export")
-    public ResponseEntity<byte[]> exportMyBackup(Authentication auth) {
+    public ResponseEntity<byte[]> exportMyBackup(
+            @RequestParam(required = false) String format,
+            @CurrentUser User user,
+            Authentication auth) {
+        long started = System.nanoTime();
         try {
-            User user = userService.findByUsername(auth.getName())
-                    .orElseThrow(() -> new RuntimeException("User not found"));
+            BackupCodec.Format fmt = BackupCodec.Format.fromParam(format);
 
             List<Expense> expenses = expenseService.getAllExpensesByUser(user);
+            UserBackupData backup = backupService.buildUserBackup(auth.getName(), expenses);
 
-            UserBackupData backup = new UserBackupData();
-            backup.setUsername(user.getUsername());
-            backup.setExportedAt(LocalDateTime.now());
-            backup.setExpenses(expenses.stream().map(e -> {
-                UserBackupData.ExpenseEntry entry = new UserBackupData.ExpenseEntry();
-                entry.setAmount(e.getAmount());
-                entry.setCategory(e.getCategory());
-                entry.setDescription(e.getDescription());
-                entry.setDate(e.getDate());
-                entry.setRecurring(e.isRecurring());
-                entry.setCreatedAt(e.getCreatedAt());
-                return entry;
-            }).collect(Collectors.toList()));
-
-            byte[] json = objectMapper.writerWithDefaultPrettyPrinter().writeValueAsBytes(backup);
-            String filename = "trackmystacks-" + user.getUsername() + "-" + LocalDate.now() + ".json";
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            backupCodec.write(bytes, fmt, backup);
+            String filename = "trackmystacks-" + auth.getName() + "-" + LocalDate.now() + "." + fmt.getExtension();
+            backupMetrics.recordExport(BackupMetrics.KIND_USER, System.nanoTime() - started, expenses.size(), bytes.size());
 
             return ResponseEntity.ok()
                     .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
-                    .contentType(MediaType.APPLICATION_JSON)
-                    .body(json);
+                    .contentType(MediaType.parseMediaType(fmt.getContentType()))
+                    .body(bytes.toByteArray());
 
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .contentType(MediaType.TEXT_PLAIN)
+                    .body(e.getMessage().getBytes());
         } catch (Exception e) {
+            backupMetrics.recordExportFailure(BackupMetrics.KIND_USER, System.nanoTime() - started);
             byte[] error = ("Export failed: " + e.getMessage()).getBytes();
             return ResponseEntity.internalServerError()
                     .contentType(MediaType.TEXT_PLAIN)
@@ -130,13 +194,14 @@ public class ExpenseController {
 
     // -------------------------------------------------------------------------
     // Backup: Import  →  POST /expenses/backup/import
-    // Restores the current user's expenses from an uploaded JSON file.
+    // Restores the current user's expenses from an uploaded backup file
+    // (JSON, gzipped JSON or Smile – detected from the content).
     // Only the authenticated user's data is touched.
     // -------------------------------------------------------------------------
     @PostMapping("/backup/import")
     public String importMyBackup(
             @RequestParam("backupFile") MultipartFile file,
-            Authentication auth,
+            @CurrentUser User user,
             RedirectAttributes redirectAttributes) {
 
         if (file.isEmpty()) {
@@ -145,39 +210,13 @@ public class ExpenseController {
             return "redirect:/dashboard";
         }
 
-        if (!file.getOriginalFilename().endsWith(".json")) {
-            redirectAttributes.addFlashAttribute("backupError", "Only .json backup files are supported.");
-            return "redirect:/dashboard";
-        }
-
         try {
-            User user = userService.findByUsername(auth.getName())
-                    .orElseThrow(() -> new RuntimeException("User not found"));
-
-            UserBackupData backup = objectMapper.readValue(file.getBytes(), UserBackupData.class);
-
-            // Wipe only this user's expenses, then recreate from backup
-            expenseService.deleteAllExpensesByUser(user);
-
-            if (backup.getExpenses() != null) {
-                for (UserBackupData.ExpenseEntry entry : backup.getExpenses()) {
-                    Expense expense = new Expense(
-                            user,
-                            entry.getAmount(),
-                            entry.getCategory(),
-                            entry.getDescription(),
-                            entry.getDate(),
-                            entry.isRecurring()
-                    );
-                    if (entry.getCreatedAt() != null) {
-                        expense.setCreatedAt(entry.getCreatedAt());
-                    }
-                    expenseService.saveExpense(expense);
-                }
-            }
+            // One transaction: set-based delete of this user's expenses, batched inserts
+            ImportResult result = backupService.restoreUserExpenses(user, file.getInputStream());
 
             redirectAttributes.addFlashAttribute("success",
-                    "Backup restored! " + (backup.getExpenses() != null ? backup.getExpenses().size() : 0) + " expense(s) imported.");
+                    "Backup restored! " + result.getExpenses() + " expense(s) imported in "
+                    + result.getElapsedMillis() + " ms.");
 
         } catch (Exception e) {
             redirectAttributes.addFlashAttribute("backupError",
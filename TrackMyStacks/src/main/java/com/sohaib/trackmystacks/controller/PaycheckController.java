@@ -4,7 +4,6 @@ import java.math.BigDecimal;
 import java.time.LocalDate;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
@@ -12,9 +11,9 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
+import com.sohaib.trackmystacks.config.CurrentUser;
 import com.sohaib.trackmystacks.model.User;
 import com.sohaib.trackmystacks.service.PaycheckService;
-import com.sohaib.trackmystacks.service.UserService;
 
 @Controller
 @RequestMapping("/paychecks")
@@ -23,20 +22,14 @@ public class PaycheckController {
     @Autowired
     private PaycheckService paycheckService;
 
-    @Autowired
-    private UserService userService;
-
     @PostMapping("/add")
     public String addPaycheck(
             @RequestParam BigDecimal amount,
             @RequestParam String month,        // "yyyy-MM" from <input type="month">
             @RequestParam(required = false, defaultValue = "") String description,
-            Authentication auth,
+            @CurrentUser User user,
             RedirectAttributes redirectAttributes) {
 
-        User user = userService.findByUsername(auth.getName())
-                .orElseThrow(() -> new RuntimeException("User not found"));
-
         // Parse "yyyy-MM" → first of that month
         LocalDate monthDate = LocalDate.parse(month + "-01");
         paycheckService.addPaycheck(user, amount, monthDate, description.isBlank() ? null : description);
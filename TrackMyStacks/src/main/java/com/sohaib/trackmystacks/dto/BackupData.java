@@ -8,15 +8,27 @@ import java.util.List;
 /**
  * Root DTO for the entire database backup.
  * Contains a portable, human-readable representation of all
- * users, categories, and expenses so the file can be imported
+ * users, categories, paychecks and expenses so the file can be imported
  * into any fresh deployment.
+ *
+ * A "delta" backup has the same shape but only holds rows changed after
+ * `since` (the exportedAt of an earlier backup), plus tombstones for rows
+ * deleted in that time. Files written before 1.1 have no type and are full.
  */
 public class BackupData {
 
-    private String version = "1.0";
+    public static final String FORMAT_VERSION = "1.1";
+    public static final String TYPE_FULL = "full";
+    public static final String TYPE_DELTA = "delta";
+
+    private String version = FORMAT_VERSION;
+    private String type = TYPE_FULL;
+    private LocalDateTime since;
     private LocalDateTime exportedAt;
+    private List<DeletionBackup> deletions;
     private List<UserBackup> users;
     private List<CategoryBackup> categories;
+    private List<PaycheckBackup> paychecks;
     private List<ExpenseBackup> expenses;
 
     public BackupData() {}
@@ -29,7 +41,7 @@ public class BackupData {
         private Long originalId;
         private String username;
         private String email;
-        /** BCrypt hash is kept verbatim so passwords survive a round-trip. */
+        /** Stored hash, kept verbatim ("{bcrypt}$2a$..." or a legacy bare "$2a$...") so passwords survive a round-trip. */
         private String passwordHash;
         private boolean admin;
         private LocalDateTime createdAt;
@@ -71,6 +83,8 @@ public class BackupData {
          *  survive re-import when auto-increment IDs are regenerated. */
         private String username;
         private BigDecimal amount;
+        /** The category's name, for the same reason: expenses.category_id only means
+         *  something in the database that wrote it. */
         private String category;
         private String description;
         private LocalDate date;
@@ -97,18 +111,71 @@ public class BackupData {
         public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
     }
 
+    public static class PaycheckBackup {
+        private Long originalId;
+        private String username;
+        private BigDecimal amount;
+        private LocalDate month;
+        private String description;
+        private LocalDateTime createdAt;
+
+        public PaycheckBackup() {}
+
+        public Long getOriginalId() { return originalId; }
+        public void setOriginalId(Long originalId) { this.originalId = originalId; }
+        public String getUsername() { return username; }
+        public void setUsername(String username) { this.username = username; }
+        public BigDecimal getAmount() { return amount; }
+        public void setAmount(BigDecimal amount) { this.amount = amount; }
+        public LocalDate getMonth() { return month; }
+        public void setMonth(LocalDate month) { this.month = month; }
+        public String getDescription() { return description; }
+        public void setDescription(String description) { this.description = description; }
+        public LocalDateTime getCreatedAt() { return createdAt; }
+        public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+    }
+
+    /** A row deleted since the previous backup (delta backups only). */
+    public static class DeletionBackup {
+        /** "user", "category", "expense" or "paycheck" (see DeletedRow). */
+        private String entity;
+        private Long originalId;
+        /** Username / category name – what a restore matches those two on. */
+        private String key;
+        private LocalDateTime deletedAt;
+
+        public DeletionBackup() {}
+
+        public String getEntity() { return entity; }
+        public void setEntity(String entity) { this.entity = entity; }
+        public Long getOriginalId() { return originalId; }
+        public void setOriginalId(Long originalId) { this.originalId = originalId; }
+        public String getKey() { return key; }
+        public void setKey(String key) { this.key = key; }
+        public LocalDateTime getDeletedAt() { return deletedAt; }
+        public void setDeletedAt(LocalDateTime deletedAt) { this.deletedAt = deletedAt; }
+    }
+
     // -------------------------------------------------------------------------
     // Root getters / setters
     // -------------------------------------------------------------------------
 
     public String getVersion() { return version; }
     public void setVersion(String version) { this.version = version; }
+    public String getType() { return type; }
+    public void setType(String type) { this.type = type; }
+    public LocalDateTime getSince() { return since; }
+    public void setSince(LocalDateTime since) { this.since = since; }
     public LocalDateTime getExportedAt() { return exportedAt; }
     public void setExportedAt(LocalDateTime exportedAt) { this.exportedAt = exportedAt; }
     public List<UserBackup> getUsers() { return users; }
     public void setUsers(List<UserBackup> users) { this.users = users; }
     public List<CategoryBackup> getCategories() { return categories; }
     public void setCategories(List<CategoryBackup> categories) { this.categories = categories; }
+    public List<PaycheckBackup> getPaychecks() { return paychecks; }
+    public void setPaychecks(List<PaycheckBackup> paychecks) { this.paychecks = paychecks; }
+    public List<DeletionBackup> getDeletions() { return deletions; }
+    public void setDeletions(List<DeletionBackup> deletions) { this.deletions = deletions; }
     public List<ExpenseBackup> getExpenses() { return expenses; }
     public void setExpenses(List<ExpenseBackup> expenses) { this.expenses = expenses; }
 }
@@ -0,0 +1,28 @@
+package com.sohaib.trackmystacks.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * A (year, month, category, total) cell of the month × category matrix,
+ * produced by a GROUP BY query. Months with no spending in a category
+ * simply have no row.
+ */
+public class CategoryMonthTotal {
+
+    private final int year;
+    private final int month;
+    private final String category;
+    private final BigDecimal total;
+
+    public CategoryMonthTotal(Integer year, Integer month, String category, BigDecimal total) {
+        this.year = year;
+        this.month = month;
+        this.category = category;
+        this.total = total != null ? total : BigDecimal.ZERO;
+    }
+
+    public int getYear() { return year; }
+    public int getMonth() { return month; }
+    public String getCategory() { return category; }
+    public BigDecimal getTotal() { return total; }
+}
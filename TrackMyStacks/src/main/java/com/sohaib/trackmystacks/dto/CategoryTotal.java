@@ -0,0 +1,20 @@
+package com.sohaib.trackmystacks.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * A (category, total) row produced by a GROUP BY query.
+ */
+public class CategoryTotal {
+
+    private final String category;
+    private final BigDecimal total;
+
+    public CategoryTotal(String category, BigDecimal total) {
+        this.category = category;
+        this.total = total != null ? total : BigDecimal.ZERO;
+    }
+
+    public String getCategory() { return category; }
+    public BigDecimal getTotal() { return total; }
+}
@@ -0,0 +1,40 @@
+package com.sohaib.trackmystacks.dto;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import com.sohaib.trackmystacks.model.Category;
+import com.sohaib.trackmystacks.model.Paycheck;
+
+/**
+ * Everything the dashboard template needs for one user and one comparison
+ * window, assembled once and served from DashboardService's cache until
+ * that user's data changes.
+ */
+public class DashboardSnapshot {
+
+    private final List<ExpensePage.Item> expenses;
+    private final String nextCursor;
+    private final BigDecimal total;
+    private final List<Category> categories;
+    private final List<Paycheck> paychecks;
+    private final List<MonthlyComparison> monthlyData;
+
+    public DashboardSnapshot(List<ExpensePage.Item> expenses, String nextCursor, BigDecimal total,
+                             List<Category> categories, List<Paycheck> paychecks,
+                             List<MonthlyComparison> monthlyData) {
+        this.expenses = expenses;
+        this.nextCursor = nextCursor;
+        this.total = total;
+        this.categories = categories;
+        this.paychecks = paychecks;
+        this.monthlyData = monthlyData;
+    }
+
+    public List<ExpensePage.Item> getExpenses() { return expenses; }
+    public String getNextCursor() { return nextCursor; }
+    public BigDecimal getTotal() { return total; }
+    public List<Category> getCategories() { return categories; }
+    public List<Paycheck> getPaychecks() { return paychecks; }
+    public List<MonthlyComparison> getMonthlyData() { return monthlyData; }
+}
@@ -0,0 +1,67 @@
+package com.sohaib.trackmystacks.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * One slice of a user's expense feed, newest first.
+ * Pages are keyed on (date, id) rather than an offset, so fetching
+ * page 500 costs the same as fetching page 1. Pass {@code nextCursor}
+ * back to /expenses/page to continue where this slice ended.
+ */
+public class ExpensePage {
+
+    private List<Item> items;
+    /** Opaque "yyyy-MM-dd_id" position of the last item, or null when there is nothing more. */
+    private String nextCursor;
+    private boolean hasMore;
+
+    public ExpensePage() {}
+
+    public ExpensePage(List<Item> items, String nextCursor, boolean hasMore) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+        this.hasMore = hasMore;
+    }
+
+    // -------------------------------------------------------------------------
+    // Nested DTO
+    // -------------------------------------------------------------------------
+
+    /** Flat view of an Expense — never exposes the owning User entity. */
+    public static class Item {
+        private Long id;
+        private BigDecimal amount;
+        private String category;
+        private String description;
+        private LocalDate date;
+        private boolean recurring;
+
+        public Item() {}
+
+        public Long getId() { return id; }
+        public void setId(Long id) { this.id = id; }
+        public BigDecimal getAmount() { return amount; }
+        public void setAmount(BigDecimal amount) { this.amount = amount; }
+        public String getCategory() { return category; }
+        public void setCategory(String category) { this.category = category; }
+        public String getDescription() { return description; }
+        public void setDescription(String description) { this.description = description; }
+        public LocalDate getDate() { return date; }
+        public void setDate(LocalDate date) { this.date = date; }
+        public boolean isRecurring() { return recurring; }
+        public void setRecurring(boolean recurring) { this.recurring = recurring; }
+    }
+
+    // -------------------------------------------------------------------------
+    // Root getters / setters
+    // -------------------------------------------------------------------------
+
+    public List<Item> getItems() { return items; }
+    public void setItems(List<Item> items) { this.items = items; }
+    public String getNextCursor() { return nextCursor; }
+    public void setNextCursor(String nextCursor) { this.nextCursor = nextCursor; }
+    public boolean isHasMore() { return hasMore; }
+    public void setHasMore(boolean hasMore) { this.hasMore = hasMore; }
+}
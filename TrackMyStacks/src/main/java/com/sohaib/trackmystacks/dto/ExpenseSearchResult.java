@@ -0,0 +1,42 @@
+package com.sohaib.trackmystacks.dto;
+
+import java.util.List;
+
+/**
+ * One page of full-text search hits over a user's expenses, best match first
+ * (newest first among equal scores). Items are the same flat view as the
+ * expense feed. Pages are numbered from 0; {@code total} counts every match.
+ */
+public class ExpenseSearchResult {
+
+    private String query;
+    private List<ExpensePage.Item> items;
+    private long total;
+    private int page;
+    private int size;
+    private boolean hasMore;
+
+    public ExpenseSearchResult() {}
+
+    public ExpenseSearchResult(String query, List<ExpensePage.Item> items, long total, int page, int size, boolean hasMore) {
+        this.query = query;
+        this.items = items;
+        this.total = total;
+        this.page = page;
+        this.size = size;
+        this.hasMore = hasMore;
+    }
+
+    public String getQuery() { return query; }
+    public void setQuery(String query) { this.query = query; }
+    public List<ExpensePage.Item> getItems() { return items; }
+    public void setItems(List<ExpensePage.Item> items) { this.items = items; }
+    public long getTotal() { return total; }
+    public void setTotal(long total) { this.total = total; }
+    public int getPage() { return page; }
+    public void setPage(int page) { this.page = page; }
+    public int getSize() { return size; }
+    public void setSize(int size) { this.size = size; }
+    public boolean isHasMore() { return hasMore; }
+    public void setHasMore(boolean hasMore) { this.hasMore = hasMore; }
+}
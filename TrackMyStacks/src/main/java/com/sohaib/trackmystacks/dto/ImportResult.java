@@ -0,0 +1,53 @@
+package com.sohaib.trackmystacks.dto;
+
+/**
+ * What a restore did and how long it took, for the admin's flash message and logs.
+ */
+public class ImportResult {
+
+    private final int documents;       // 1 full backup + any deltas applied on top
+    private final int users;
+    private final int categories;
+    private final int paychecks;
+    private final long expenses;
+    private final long deleted;        // rows removed by delta tombstones
+    private final long skipped;        // rows whose owner was not in the backup
+    private final long elapsedMillis;
+
+    public ImportResult(int documents, int users, int categories, int paychecks, long expenses,
+                        long deleted, long skipped, long elapsedMillis) {
+        this.documents = documents;
+        this.users = users;
+        this.categories = categories;
+        this.paychecks = paychecks;
+        this.expenses = expenses;
+        this.deleted = deleted;
+        this.skipped = skipped;
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    public int getDocuments() { return documents; }
+    public int getUsers() { return users; }
+    public int getCategories() { return categories; }
+    public int getPaychecks() { return paychecks; }
+    public long getExpenses() { return expenses; }
+    public long getDeleted() { return deleted; }
+    public long getSkipped() { return skipped; }
+    public long getElapsedMillis() { return elapsedMillis; }
+
+    /** All inserted / upserted / deleted rows per second of wall-clock time. */
+    public long getRowsPerSecond() {
+        long rows = users + categories + paychecks + expenses + deleted;
+        return elapsedMillis == 0 ? rows * 1000 : rows * 1000 / elapsedMillis;
+    }
+
+    @Override
+    public String toString() {
+        return (documents > 1 ? documents + " files: " : "")
+                + users + " user(s), " + categories + " categor(ies), " + paychecks + " paycheck(s), "
+                + expenses + " expense(s)"
+                + (deleted > 0 ? ", " + deleted + " deletion(s)" : "")
+                + (skipped > 0 ? " (" + skipped + " skipped)" : "")
+                + " in " + elapsedMillis + " ms, " + getRowsPerSecond() + " rows/sec";
+    }
+}
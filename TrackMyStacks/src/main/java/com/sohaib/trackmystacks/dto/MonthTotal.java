@@ -0,0 +1,28 @@
+package com.sohaib.trackmystacks.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * A (year, month, total) row produced by a GROUP BY query.
+ * Built directly by JPQL constructor expressions, so no entities are loaded.
+ */
+public class MonthTotal {
+
+    private final int year;
+    private final int month;
+    private final BigDecimal total;
+
+    public MonthTotal(Integer year, Integer month, BigDecimal total) {
+        this.year = year;
+        this.month = month;
+        this.total = total != null ? total : BigDecimal.ZERO;
+    }
+
+    public int getYear() { return year; }
+    public int getMonth() { return month; }
+    public BigDecimal getTotal() { return total; }
+
+    /** First day of the month this total belongs to. */
+    public LocalDate getFirstOfMonth() { return LocalDate.of(year, month, 1); }
+}
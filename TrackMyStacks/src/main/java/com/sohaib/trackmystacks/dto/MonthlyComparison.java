@@ -2,25 +2,28 @@ package com.sohaib.trackmystacks.dto;
 
 import java.math.BigDecimal;
 
+import com.sohaib.trackmystacks.model.Money;
+
 /**
  * One row in the monthly Income vs Expenses comparison table / chart.
+ * Amounts are held as {@link Money}; the getters hand BigDecimal to templates and JSON.
  */
 public class MonthlyComparison {
 
     private String monthLabel;   // e.g. "Jan 2026"
-    private BigDecimal income;
-    private BigDecimal expenses;
-    private BigDecimal balance;  // income - expenses (positive = surplus, negative = deficit)
+    private Money income;
+    private Money expenses;
+    private Money balance;       // income - expenses (positive = surplus, negative = deficit)
 
-    public MonthlyComparison(String monthLabel, BigDecimal income, BigDecimal expenses) {
+    public MonthlyComparison(String monthLabel, Money income, Money expenses) {
         this.monthLabel = monthLabel;
         this.income = income;
         this.expenses = expenses;
-        this.balance = income.subtract(expenses);
+        this.balance = income.minus(expenses);
     }
 
     public String getMonthLabel() { return monthLabel; }
-    public BigDecimal getIncome() { return income; }
-    public BigDecimal getExpenses() { return expenses; }
-    public BigDecimal getBalance() { return balance; }
+    public BigDecimal getIncome() { return income.toBigDecimal(); }
+    public BigDecimal getExpenses() { return expenses.toBigDecimal(); }
+    public BigDecimal getBalance() { return balance.toBigDecimal(); }
 }
@@ -25,6 +25,7 @@ public class UserBackupData {
 
     public static class ExpenseEntry {
         private BigDecimal amount;
+        /** Category name, not id; restoring adds a name the category list doesn't have. */
         private String category;
         private String description;
         private LocalDate date;
@@ -0,0 +1,28 @@
+package com.sohaib.trackmystacks.dto;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * One calendar month of this year's spending next to the same month last year.
+ */
+public class YearOverYear {
+
+    private String monthLabel;    // e.g. "Jan"
+    private BigDecimal current;
+    private BigDecimal previous;
+    private BigDecimal changePercent;  // null when last year had no spending to compare against
+
+    public YearOverYear(String monthLabel, BigDecimal current, BigDecimal previous) {
+        this.monthLabel = monthLabel;
+        this.current = current;
+        this.previous = previous;
+        this.changePercent = previous.signum() == 0 ? null
+                : current.subtract(previous).multiply(BigDecimal.valueOf(100)).divide(previous, 1, RoundingMode.HALF_UP);
+    }
+
+    public String getMonthLabel() { return monthLabel; }
+    public BigDecimal getCurrent() { return current; }
+    public BigDecimal getPrevious() { return previous; }
+    public BigDecimal getChangePercent() { return changePercent; }
+}
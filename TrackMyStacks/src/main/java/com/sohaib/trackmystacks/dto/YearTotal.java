@@ -0,0 +1,20 @@
+package com.sohaib.trackmystacks.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * A (year, total) row produced by a GROUP BY query.
+ */
+public class YearTotal {
+
+    private final int year;
+    private final BigDecimal total;
+
+    public YearTotal(Integer year, BigDecimal total) {
+        this.year = year;
+        this.total = total != null ? total : BigDecimal.ZERO;
+    }
+
+    public int getYear() { return year; }
+    public BigDecimal getTotal() { return total; }
+}
@@ -2,6 +2,15 @@ package com.sohaib.trackmystacks.model;
 
 import java.time.LocalDateTime;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import com.sohaib.trackmystacks.config.HibernateCacheConfig;
+
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
@@ -11,17 +20,25 @@ import jakarta.persistence.Table;
 
 @Entity
 @Table(name = "categories")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = HibernateCacheConfig.CATEGORIES)
+@NaturalIdCache(region = HibernateCacheConfig.CATEGORIES_BY_NAME)
 public class Category {
     
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
     
+    @NaturalId
     @Column(unique = true, nullable = false, length = 50)
     private String name;
     
     @Column(name = "created_at")
     private LocalDateTime createdAt = LocalDateTime.now();
+
+    @UpdateTimestamp
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
     
     // Constructors
     public Category() {}
@@ -54,4 +71,8 @@ public class Category {
     public void setCreatedAt(LocalDateTime createdAt) {
         this.createdAt = createdAt;
     }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
 }
\ No newline at end of file
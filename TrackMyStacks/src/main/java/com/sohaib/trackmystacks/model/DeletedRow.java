@@ -0,0 +1,62 @@
+package com.sohaib.trackmystacks.model;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+/**
+ * Tombstone for a deleted user, category, expense or paycheck.
+ * Delta backups carry these so a restore can replay deletes; rows that
+ * still exist are found through their `updated_at` column instead.
+ */
+@Entity
+@Table(name = "deleted_rows")
+public class DeletedRow {
+
+    public static final String USER = "user";
+    public static final String CATEGORY = "category";
+    public static final String EXPENSE = "expense";
+    public static final String PAYCHECK = "paycheck";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "entity_type", nullable = false, length = 20)
+    private String entityType;
+
+    /** Primary key the row had before it was deleted. */
+    @Column(name = "entity_id", nullable = false)
+    private Long entityId;
+
+    /** Natural key for users (username) and categories (name); null otherwise. */
+    @Column(name = "entity_key", length = 100)
+    private String entityKey;
+
+    @Column(name = "deleted_at", nullable = false)
+    private LocalDateTime deletedAt = LocalDateTime.now();
+
+    public DeletedRow() {}
+
+    public DeletedRow(String entityType, Long entityId, String entityKey) {
+        this.entityType = entityType;
+        this.entityId = entityId;
+        this.entityKey = entityKey;
+    }
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public String getEntityType() { return entityType; }
+    public void setEntityType(String entityType) { this.entityType = entityType; }
+    public Long getEntityId() { return entityId; }
+    public void setEntityId(Long entityId) { this.entityId = entityId; }
+    public String getEntityKey() { return entityKey; }
+    public void setEntityKey(String entityKey) { this.entityKey = entityKey; }
+    public LocalDateTime getDeletedAt() { return deletedAt; }
+    public void setDeletedAt(LocalDateTime deletedAt) { this.deletedAt = deletedAt; }
+}
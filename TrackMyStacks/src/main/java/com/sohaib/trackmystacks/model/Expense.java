@@ -4,6 +4,8 @@ import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 
+import org.hibernate.annotations.UpdateTimestamp;
+
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.FetchType;
@@ -12,14 +14,17 @@ import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 
 @Entity
 @Table(name = "expenses")
 public class Expense {
     
+    // Pooled sequence (see V4__ExpenseIdSequence) so bulk inserts can be JDBC-batched
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "expenses_seq")
+    @SequenceGenerator(name = "expenses_seq", sequenceName = "expenses_seq", allocationSize = 50)
     private Long id;
     
     @ManyToOne(fetch = FetchType.LAZY)
@@ -29,8 +34,10 @@ public class Expense {
     @Column(nullable = false, precision = 10, scale = 2)
     private BigDecimal amount;
     
-    @Column(nullable = false, length = 50)
-    private String category;
+    // By id since V6__expense_category_fk; Category is second-level cached, so getName() is seldom a query
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "category_id", nullable = false)
+    private Category category;
     
     @Column(length = 255)
     private String description;
@@ -43,11 +50,16 @@ public class Expense {
     
     @Column(name = "created_at")
     private LocalDateTime createdAt = LocalDateTime.now();
+
+    // Set by Hibernate on every insert and update; delta backups select on it
+    @UpdateTimestamp
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
     
     // Constructors
     public Expense() {}
     
-    public Expense(User user, BigDecimal amount, String category, String description, LocalDate date, boolean recurring) {
+    public Expense(User user, BigDecimal amount, Category category, String description, LocalDate date, boolean recurring) {
         this.user = user;
         this.amount = amount;
         this.category = category;
@@ -81,11 +93,11 @@ public class Expense {
         this.amount = amount;
     }
     
-    public String getCategory() {
+    public Category getCategory() {
         return category;
     }
     
-    public void setCategory(String category) {
+    public void setCategory(Category category) {
         this.category = category;
     }
     
@@ -120,4 +132,8 @@ public class Expense {
     public void setCreatedAt(LocalDateTime createdAt) {
         this.createdAt = createdAt;
     }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,82 @@
+package com.sohaib.trackmystacks.model;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * An amount of money held as a whole number of cents, the two decimal places
+ * every amount column uses.
+ *
+ * Arithmetic is exact: a result that doesn't fit in a long throws
+ * ArithmeticException instead of wrapping around, and {@link #of(BigDecimal)}
+ * refuses amounts with more than two decimals rather than rounding them.
+ * Convert with {@link #toBigDecimal()} at the edges (entities, views, JSON).
+ * Sums over many rows go through a {@link MoneyAccumulator}.
+ */
+public final class Money implements Comparable<Money> {
+
+    public static final int SCALE = 2;
+    public static final Money ZERO = new Money(0);
+
+    private final long cents;
+
+    private Money(long cents) {
+        this.cents = cents;
+    }
+
+    public static Money ofCents(long cents) {
+        return cents == 0 ? ZERO : new Money(cents);
+    }
+
+    /** The exact amount of {@code amount}; null counts as zero, like COALESCE(SUM(...), 0). */
+    public static Money of(BigDecimal amount) {
+        if (amount == null || amount.signum() == 0) {
+            return ZERO;
+        }
+        return ofCents(amount.setScale(SCALE, RoundingMode.UNNECESSARY).unscaledValue().longValueExact());
+    }
+
+    public long cents() {
+        return cents;
+    }
+
+    public Money plus(Money other) {
+        return ofCents(Math.addExact(cents, other.cents));
+    }
+
+    public Money minus(Money other) {
+        return ofCents(Math.subtractExact(cents, other.cents));
+    }
+
+    public Money negate() {
+        return ofCents(Math.negateExact(cents));
+    }
+
+    public int signum() {
+        return Long.signum(cents);
+    }
+
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(cents, SCALE);
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        return Long.compare(cents, other.cents);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof Money other && other.cents == cents;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(cents);
+    }
+
+    @Override
+    public String toString() {
+        return toBigDecimal().toPlainString();
+    }
+}
@@ -0,0 +1,37 @@
+package com.sohaib.trackmystacks.model;
+
+import java.math.BigDecimal;
+
+/**
+ * A running total in cents, for loops that sum many amounts.
+ *
+ * Adding a long or a {@link Money} allocates nothing; only {@link #total()}
+ * creates an object. Overflow throws ArithmeticException, so a total is
+ * either exact or an error. Not thread-safe; use one per loop.
+ */
+public final class MoneyAccumulator {
+
+    private long cents;
+
+    public MoneyAccumulator addCents(long amountCents) {
+        cents = Math.addExact(cents, amountCents);
+        return this;
+    }
+
+    public MoneyAccumulator add(Money amount) {
+        return addCents(amount.cents());
+    }
+
+    /** Converts {@code amount} first; prefer {@link #addCents} where the cents are already at hand. */
+    public MoneyAccumulator add(BigDecimal amount) {
+        return addCents(Money.of(amount).cents());
+    }
+
+    public long cents() {
+        return cents;
+    }
+
+    public Money total() {
+        return Money.ofCents(cents);
+    }
+}
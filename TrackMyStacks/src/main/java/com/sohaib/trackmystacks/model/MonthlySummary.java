@@ -0,0 +1,64 @@
+package com.sohaib.trackmystacks.model;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+
+/**
+ * Pre-aggregated income and expense totals for one user and one month.
+ * Kept up to date incrementally by ExpenseService / PaycheckService on every
+ * write, so the dashboard's monthly comparison reads a handful of small rows
+ * instead of re-summing every paycheck and expense in the window.
+ * Like Paycheck, `month` is always the 1st of the month.
+ */
+@Entity
+@Table(name = "monthly_summaries")
+public class MonthlySummary {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+
+    /** First day of the month these totals cover. */
+    @Column(name = "summary_month", nullable = false)
+    private LocalDate month;
+
+    @Column(name = "income_total", nullable = false, precision = 14, scale = 2)
+    private BigDecimal income = BigDecimal.ZERO;
+
+    @Column(name = "expense_total", nullable = false, precision = 14, scale = 2)
+    private BigDecimal expenses = BigDecimal.ZERO;
+
+    public MonthlySummary() {}
+
+    public MonthlySummary(User user, LocalDate month, BigDecimal income, BigDecimal expenses) {
+        this.user = user;
+        this.month = month;
+        this.income = income;
+        this.expenses = expenses;
+    }
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public User getUser() { return user; }
+    public void setUser(User user) { this.user = user; }
+    public LocalDate getMonth() { return month; }
+    public void setMonth(LocalDate month) { this.month = month; }
+    public BigDecimal getIncome() { return income; }
+    public void setIncome(BigDecimal income) { this.income = income; }
+    public BigDecimal getExpenses() { return expenses; }
+    public void setExpenses(BigDecimal expenses) { this.expenses = expenses; }
+}
@@ -4,6 +4,15 @@ package com.sohaib.trackmystacks.model;
 // Importing necessary classes for JPA and date handling
 import java.time.LocalDateTime;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import com.sohaib.trackmystacks.config.HibernateCacheConfig;
+
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
@@ -14,6 +23,10 @@ import jakarta.persistence.Table;
 // The @Entity annotation specifies that this class is an entity and is mapped to a database table. The @Table annotation specifies the name of the database table to be used for mapping.
 @Entity
 @Table(name = "users")
+// Cached in the second-level cache: looked up by id and by username on nearly every request.
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = HibernateCacheConfig.USERS)
+@NaturalIdCache(region = HibernateCacheConfig.USERS_BY_USERNAME)
 // The User class represents a user in the TrackMyStacks application. It includes fields for id, username, email, password, admin status, and createdAt timestamp. It also includes constructors, getters, and setters for these fields.
 public class User {
     
@@ -21,6 +34,7 @@ public class User {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
     
+    @NaturalId
     @Column(unique = true, nullable = false, length = 50)
     private String username;
     
@@ -35,6 +49,10 @@ public class User {
     
     @Column(name = "created_at")
     private LocalDateTime createdAt = LocalDateTime.now();
+
+    @UpdateTimestamp
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
     
     // Constructors:
     // Default constructor is required by JPA
@@ -96,4 +114,8 @@ public class User {
     public void setCreatedAt(LocalDateTime createdAt) {
         this.createdAt = createdAt;
     }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
 }
\ No newline at end of file
@@ -1,14 +1,25 @@
 package com.sohaib.trackmystacks.repository;
 
-import java.util.Optional;
+import java.time.LocalDateTime;
+import java.util.List;
 
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import com.sohaib.trackmystacks.model.Category;
 
+import jakarta.persistence.QueryHint;
+
 @Repository
-public interface CategoryRepository extends JpaRepository<Category, Long> {
-    Optional<Category> findByName(String name);
+public interface CategoryRepository extends JpaRepository<Category, Long>, CategoryRepositoryCustom {
+
+    // Rendered on every dashboard; served from the query cache until categories change
+    @Override
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    List<Category> findAll();
+
     boolean existsByName(String name);
+    List<Category> findByUpdatedAtAfter(LocalDateTime since);   // delta backups
 }
\ No newline at end of file
@@ -0,0 +1,9 @@
+package com.sohaib.trackmystacks.repository;
+
+import java.util.Optional;
+
+import com.sohaib.trackmystacks.model.Category;
+
+public interface CategoryRepositoryCustom {
+    Optional<Category> findByName(String name);
+}
@@ -0,0 +1,26 @@
+package com.sohaib.trackmystacks.repository;
+
+import java.util.Optional;
+
+import org.hibernate.Session;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.sohaib.trackmystacks.model.Category;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+/** Name lookups through the natural-id cache; see {@link UserRepositoryImpl}. */
+public class CategoryRepositoryImpl implements CategoryRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<Category> findByName(String name) {
+        return entityManager.unwrap(Session.class)
+                .bySimpleNaturalId(Category.class)
+                .loadOptional(name);
+    }
+}
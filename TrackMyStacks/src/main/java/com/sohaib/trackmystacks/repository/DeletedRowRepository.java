@@ -0,0 +1,25 @@
+package com.sohaib.trackmystacks.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import com.sohaib.trackmystacks.model.DeletedRow;
+import com.sohaib.trackmystacks.model.User;
+
+@Repository
+public interface DeletedRowRepository extends JpaRepository<DeletedRow, Long> {
+
+    @Query("SELECT d FROM DeletedRow d WHERE d.deletedAt > :since ORDER BY d.id")
+    List<DeletedRow> findDeletedSince(LocalDateTime since);
+
+    // One INSERT ... SELECT for all of a user's expenses, ahead of a bulk delete
+    @Modifying(flushAutomatically = true)
+    @Query("INSERT INTO DeletedRow (entityType, entityId, deletedAt) "
+            + "SELECT '" + DeletedRow.EXPENSE + "', e.id, :deletedAt FROM Expense e WHERE e.user = :user")
+    int recordExpensesOf(User user, LocalDateTime deletedAt);
+}
@@ -1,39 +1,69 @@
 package com.sohaib.trackmystacks.repository;
 
-import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import com.sohaib.trackmystacks.dto.MonthTotal;
+import com.sohaib.trackmystacks.model.Category;
 import com.sohaib.trackmystacks.model.Expense;
 import com.sohaib.trackmystacks.model.User;
 
 @Repository
 public interface ExpenseRepository extends JpaRepository<Expense, Long> {
     
-    // Find all expenses for a specific user, ordered by date descending
-    @Query("SELECT e FROM Expense e WHERE e.user = :user ORDER BY e.date DESC")
+    // Find all expenses for a specific user, ordered by date descending (category fetched for the backup's names)
+    @Query("SELECT e FROM Expense e JOIN FETCH e.category WHERE e.user = :user ORDER BY e.date DESC")
     List<Expense> findByUserOrderByDateDesc(User user);
+
+    // Keyset pagination: first page of a user's feed, newest first (id breaks ties on the same date).
+    // The feed queries are shaped for idx_expenses_user_date: "e.date <= :x" is a range the planner
+    // can seek on, and leading the ORDER BY with the (fixed) user id lets H2 read rows in index
+    // order instead of sorting all of the user's expenses. The category is fetched for its name; the
+    // join is a primary-key lookup per row and doesn't change that plan.
+    @Query("SELECT e FROM Expense e JOIN FETCH e.category WHERE e.user = :user AND e.date <= :latest ORDER BY e.user.id, e.date DESC, e.id DESC")
+    List<Expense> findFirstPageByUser(User user, LocalDate latest, Pageable pageable);
+
+    // Keyset pagination: the page strictly after the (date, id) cursor of the previous page
+    @Query("SELECT e FROM Expense e JOIN FETCH e.category WHERE e.user = :user AND e.date <= :date AND (e.date < :date OR e.id < :id) ORDER BY e.user.id, e.date DESC, e.id DESC")
+    List<Expense> findPageByUserAfter(User user, LocalDate date, Long id, Pageable pageable);
     
-    // Find expenses by user and date range
-    @Query("SELECT e FROM Expense e WHERE e.user = :user AND e.date BETWEEN :startDate AND :endDate ORDER BY e.date DESC")
-    List<Expense> findByUserAndDateBetweenOrderByDateDesc(User user, LocalDate startDate, LocalDate endDate);
-    
-    // Find expenses by user and category
-    @Query("SELECT e FROM Expense e WHERE e.user = :user AND e.category = :category ORDER BY e.date DESC")
-    List<Expense> findByUserAndCategoryOrderByDateDesc(User user, String category);
-    
-    // Calculate total for a user
-    @Query("SELECT COALESCE(SUM(e.amount), 0) FROM Expense e WHERE e.user = :user")
-    BigDecimal getTotalByUser(User user);
+
+    // Keyset pagination within one category, shaped for idx_expenses_category_user_date the same way the
+    // feed queries above are for idx_expenses_user_date: both fixed ids lead the ORDER BY.
+    @Query("SELECT e FROM Expense e WHERE e.category = :category AND e.user = :user AND e.date <= :latest ORDER BY e.category.id, e.user.id, e.date DESC, e.id DESC")
+    List<Expense> findFirstPageByUserAndCategory(User user, Category category, LocalDate latest, Pageable pageable);
+
+    @Query("SELECT e FROM Expense e WHERE e.category = :category AND e.user = :user AND e.date <= :date AND (e.date < :date OR e.id < :id) ORDER BY e.category.id, e.user.id, e.date DESC, e.id DESC")
+    List<Expense> findPageByUserAndCategoryAfter(User user, Category category, LocalDate date, Long id, Pageable pageable);
+
+    // Whether any expense still references the category (checked before deleting it)
+    boolean existsByCategory(Category category);
     
-    // Calculate total by user and date range
-    @Query("SELECT COALESCE(SUM(e.amount), 0) FROM Expense e WHERE e.user = :user AND e.date BETWEEN :startDate AND :endDate")
-    BigDecimal getTotalByUserAndDateRange(User user, LocalDate startDate, LocalDate endDate);
+    // Per-month totals for a user, summed in the database (used to rebuild monthly summaries)
+    @Query("SELECT new com.sohaib.trackmystacks.dto.MonthTotal(YEAR(e.date), MONTH(e.date), SUM(e.amount)) FROM Expense e WHERE e.user = :user GROUP BY YEAR(e.date), MONTH(e.date)")
+    List<MonthTotal> getMonthlyTotalsByUser(User user);
+
+    // In-memory export: every expense with its owner and category in one query (a plain findAll() would load each separately)
+    @Query("SELECT e FROM Expense e JOIN FETCH e.user JOIN FETCH e.category ORDER BY e.id")
+    List<Expense> findAllWithUser();
+
+    // Streaming export: the next chunk of all expenses after the given id, owner and category fetched in the same query
+    @Query("SELECT e FROM Expense e JOIN FETCH e.user JOIN FETCH e.category WHERE e.id > :afterId ORDER BY e.id")
+    List<Expense> findChunkAfterId(Long afterId, Pageable pageable);
+
+    // Delta export: the same, limited to rows inserted or updated after :since
+    @Query("SELECT e FROM Expense e JOIN FETCH e.user JOIN FETCH e.category WHERE e.updatedAt > :since AND e.id > :afterId ORDER BY e.id")
+    List<Expense> findChangedChunkAfterId(LocalDateTime since, Long afterId, Pageable pageable);
 
-    // Delete all expenses belonging to a specific user (used during user-level restore)
-    void deleteByUser(User user);
+    // Delete all expenses belonging to a specific user in one statement (user-level restore, user removal)
+    @Modifying(flushAutomatically = true)
+    @Query("DELETE FROM Expense e WHERE e.user = :user")
+    int deleteAllByUserInBatch(User user);
 }
\ No newline at end of file
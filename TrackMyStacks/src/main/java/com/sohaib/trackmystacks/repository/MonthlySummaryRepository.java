@@ -0,0 +1,37 @@
+package com.sohaib.trackmystacks.repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import com.sohaib.trackmystacks.model.MonthlySummary;
+import com.sohaib.trackmystacks.model.User;
+
+@Repository
+public interface MonthlySummaryRepository extends JpaRepository<MonthlySummary, Long> {
+
+    @Query("SELECT s FROM MonthlySummary s WHERE s.user = :user AND s.month >= :from AND s.month <= :to ORDER BY s.month ASC")
+    List<MonthlySummary> findByUserAndMonthBetween(User user, LocalDate from, LocalDate to);
+
+    @Query("SELECT s FROM MonthlySummary s WHERE s.user = :user ORDER BY s.month ASC")
+    List<MonthlySummary> findByUserOrderByMonth(User user);
+
+    // In-place increments: a single UPDATE avoids lost updates between concurrent writers.
+    // Both return the number of rows touched (0 means the month row does not exist yet).
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE MonthlySummary s SET s.expenses = s.expenses + :delta WHERE s.user = :user AND s.month = :month")
+    int addToExpenses(User user, LocalDate month, BigDecimal delta);
+
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE MonthlySummary s SET s.income = s.income + :delta WHERE s.user = :user AND s.month = :month")
+    int addToIncome(User user, LocalDate month, BigDecimal delta);
+
+    @Modifying(flushAutomatically = true)
+    @Query("DELETE FROM MonthlySummary s WHERE s.user = :user")
+    int deleteAllByUser(User user);
+}
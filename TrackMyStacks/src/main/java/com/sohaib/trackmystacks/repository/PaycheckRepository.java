@@ -2,12 +2,15 @@ package com.sohaib.trackmystacks.repository;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import com.sohaib.trackmystacks.dto.MonthTotal;
 import com.sohaib.trackmystacks.model.Paycheck;
 import com.sohaib.trackmystacks.model.User;
 
@@ -22,4 +25,19 @@ public interface PaycheckRepository extends JpaRepository<Paycheck, Long> {
 
     @Query("SELECT COALESCE(SUM(p.amount), 0) FROM Paycheck p WHERE p.user = :user AND p.month = :month")
     BigDecimal getTotalByUserAndMonth(User user, LocalDate month);
+
+    // Per-month income totals for a user, summed in the database (used to rebuild monthly summaries)
+    @Query("SELECT new com.sohaib.trackmystacks.dto.MonthTotal(YEAR(p.month), MONTH(p.month), SUM(p.amount)) FROM Paycheck p WHERE p.user = :user GROUP BY YEAR(p.month), MONTH(p.month)")
+    List<MonthTotal> getMonthlyTotalsByUser(User user);
+
+    // Backup export: every paycheck (or those changed since a point in time), owner fetched in the same query
+    @Query("SELECT p FROM Paycheck p JOIN FETCH p.user ORDER BY p.id")
+    List<Paycheck> findAllWithUser();
+
+    @Query("SELECT p FROM Paycheck p JOIN FETCH p.user WHERE p.updatedAt > :since ORDER BY p.id")
+    List<Paycheck> findChangedSince(LocalDateTime since);
+
+    @Modifying(flushAutomatically = true)
+    @Query("DELETE FROM Paycheck p WHERE p.user = :user")
+    int deleteAllByUserInBatch(User user);
 }
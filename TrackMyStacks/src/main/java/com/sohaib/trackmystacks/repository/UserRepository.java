@@ -2,6 +2,8 @@
 package com.sohaib.trackmystacks.repository;
 
 // Importing necessary classes for JPA and Spring Data
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -11,9 +13,10 @@ import com.sohaib.trackmystacks.model.User;
 
 // The @Repository annotation indicates that this interface is a Spring Data repository, which will be automatically implemented by Spring Data JPA. The UserRepository interface extends JpaRepository, which provides basic CRUD operations for the User entity. Additionally, it defines custom query methods to find users by username and email, and to check for the existence of users by these fields.
 @Repository
-public interface UserRepository extends JpaRepository<User, Long> {
-    Optional<User> findByUsername(String username);
+public interface UserRepository extends JpaRepository<User, Long>, UserRepositoryCustom {
+    // findByUsername (natural-id, second-level cached) lives in UserRepositoryImpl
     Optional<User> findByEmail(String email);
     boolean existsByUsername(String username);
     boolean existsByEmail(String email);
+    List<User> findByUpdatedAtAfter(LocalDateTime since);   // delta backups
 }
\ No newline at end of file
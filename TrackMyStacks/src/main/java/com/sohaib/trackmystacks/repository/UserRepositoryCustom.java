@@ -0,0 +1,9 @@
+package com.sohaib.trackmystacks.repository;
+
+import java.util.Optional;
+
+import com.sohaib.trackmystacks.model.User;
+
+public interface UserRepositoryCustom {
+    Optional<User> findByUsername(String username);
+}
@@ -0,0 +1,31 @@
+package com.sohaib.trackmystacks.repository;
+
+import java.util.Optional;
+
+import org.hibernate.Session;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.sohaib.trackmystacks.model.User;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+/**
+ * Username lookups go through Hibernate's natural-id API rather than a derived
+ * query, so they are answered from the second-level cache (username → id → user)
+ * without touching the database once the user has been seen.
+ */
+public class UserRepositoryImpl implements UserRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // Transactional so the Session stays open when called outside one (e.g. during login)
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<User> findByUsername(String username) {
+        return entityManager.unwrap(Session.class)
+                .bySimpleNaturalId(User.class)
+                .loadOptional(username);
+    }
+}
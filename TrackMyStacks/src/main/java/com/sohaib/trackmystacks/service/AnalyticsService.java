@@ -0,0 +1,186 @@
+package com.sohaib.trackmystacks.service;
+
+import java.time.LocalDate;
+import java.time.Month;
+import java.time.format.TextStyle;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import com.sohaib.trackmystacks.config.MetricsConfig;
+import com.sohaib.trackmystacks.dto.CategoryMonthTotal;
+import com.sohaib.trackmystacks.dto.CategoryTotal;
+import com.sohaib.trackmystacks.dto.MonthTotal;
+import com.sohaib.trackmystacks.dto.YearOverYear;
+import com.sohaib.trackmystacks.dto.YearTotal;
+import com.sohaib.trackmystacks.model.Money;
+import com.sohaib.trackmystacks.model.User;
+
+import io.micrometer.core.annotation.Timed;
+
+/**
+ * Long-range spending analytics.
+ *
+ * Every method answers from the user's {@link ExpenseLedger}: month and year
+ * totals are range sums over its running total, category breakdowns walk the
+ * rows in the window once and add into a long[] per category id, which is
+ * named from the (query-cached) category list at the end. Only the grouped
+ * results are turned into BigDecimal DTOs, so a 60-month chart costs a few
+ * dozen small objects and, once the ledger is built, no SQL at all.
+ *
+ * Windows are "the last N months including the current one", matching
+ * the dashboard's monthly comparison.
+ */
+@Service
+@Timed(MetricsConfig.SERVICE_TIMER)
+public class AnalyticsService {
+
+    public static final int DEFAULT_WINDOW_MONTHS = 6;
+    public static final int MAX_WINDOW_MONTHS = 120;
+    /** Windows offered as quick picks on the dashboard. */
+    public static final List<Integer> PRESET_WINDOWS = List.of(6, 12, 24, 60);
+
+    @Autowired
+    private ExpenseLedgerCache ledgerCache;
+
+    @Autowired
+    private CategoryService categoryService;
+
+    /** Clamps a requested window to 1..MAX_WINDOW_MONTHS. */
+    public int normalizeWindow(int months) {
+        return Math.max(1, Math.min(months, MAX_WINDOW_MONTHS));
+    }
+
+    /** Expense total per month, oldest first, with empty months filled in as zero. */
+    public List<MonthTotal> getMonthlyTotals(User user, int months) {
+        LocalDate from = windowStart(months);
+        int count = normalizeWindow(months);
+        long[] sums = ledgerCache.get(user.getId()).sumsBetween(monthBounds(from, count));
+
+        List<MonthTotal> result = new ArrayList<>(count);
+        for (int m = 0; m < count; m++) {
+            LocalDate month = from.plusMonths(m);
+            result.add(new MonthTotal(month.getYear(), month.getMonthValue(), Money.ofCents(sums[m]).toBigDecimal()));
+        }
+        return result;
+    }
+
+    /** Expense total per category over the window, largest first. */
+    public List<CategoryTotal> getCategoryTotals(User user, int months) {
+        ExpenseLedger ledger = ledgerCache.get(user.getId());
+        long[] window = {windowStart(months).toEpochDay(), windowEnd().toEpochDay() + 1};
+        int[] counts = new int[ledger.categoryCount()];
+        long[] sums = ledger.categorySumsBetween(window, counts);
+
+        String[] names = categoryNames(ledger);
+        List<CategoryTotal> result = new ArrayList<>();
+        for (int code = 0; code < sums.length; code++) {
+            if (counts[code] > 0) {
+                result.add(new CategoryTotal(names[code], Money.ofCents(sums[code]).toBigDecimal()));
+            }
+        }
+        result.sort(Comparator.comparing(CategoryTotal::getTotal).reversed());
+        return result;
+    }
+
+    /** Sparse month × category matrix over the window, oldest month first. */
+    public List<CategoryMonthTotal> getMonthlyCategoryTotals(User user, int months) {
+        ExpenseLedger ledger = ledgerCache.get(user.getId());
+        LocalDate from = windowStart(months);
+        int count = normalizeWindow(months);
+        int categories = ledger.categoryCount();
+        int[] counts = new int[count * categories];
+        long[] sums = ledger.categorySumsBetween(monthBounds(from, count), counts);
+
+        // Categories by name within each month, as the chart legend lists them
+        String[] names = categoryNames(ledger);
+        Integer[] byName = new Integer[categories];
+        for (int code = 0; code < categories; code++) {
+            byName[code] = code;
+        }
+        Arrays.sort(byName, Comparator.comparing(code -> names[code]));
+
+        List<CategoryMonthTotal> result = new ArrayList<>();
+        for (int m = 0; m < count; m++) {
+            LocalDate month = from.plusMonths(m);
+            for (int code : byName) {
+                int cell = m * categories + code;
+                if (counts[cell] > 0) {
+                    result.add(new CategoryMonthTotal(month.getYear(), month.getMonthValue(),
+                            names[code], Money.ofCents(sums[cell]).toBigDecimal()));
+                }
+            }
+        }
+        return result;
+    }
+
+    /** Expense total per calendar year across the user's whole history. */
+    public List<YearTotal> getYearlyTotals(User user) {
+        ExpenseLedger ledger = ledgerCache.get(user.getId());
+        if (ledger.size() == 0) {
+            return List.of();
+        }
+        int firstYear = LocalDate.ofEpochDay(ledger.firstDay()).getYear();
+        int lastYear = LocalDate.ofEpochDay(ledger.lastDay()).getYear();
+
+        List<YearTotal> result = new ArrayList<>();
+        for (int year = firstYear; year <= lastYear; year++) {
+            long from = LocalDate.of(year, 1, 1).toEpochDay();
+            long to = LocalDate.of(year, 12, 31).toEpochDay();
+            // Only years that have expenses, like the GROUP BY this replaced
+            if (ledger.count(from, to) > 0) {
+                result.add(new YearTotal(year, ledger.sum(from, to).toBigDecimal()));
+            }
+        }
+        return result;
+    }
+
+    /** Each month of the current year next to the same month of last year (Jan..Dec). */
+    public List<YearOverYear> getYearOverYear(User user) {
+        int thisYear = LocalDate.now().getYear();
+        long[] sums = ledgerCache.get(user.getId()).sumsBetween(monthBounds(LocalDate.of(thisYear - 1, 1, 1), 24));
+
+        List<YearOverYear> result = new ArrayList<>();
+        for (int m = 0; m < 12; m++) {
+            String label = Month.of(m + 1).getDisplayName(TextStyle.SHORT, Locale.ENGLISH);
+            result.add(new YearOverYear(label,
+                    Money.ofCents(sums[12 + m]).toBigDecimal(), Money.ofCents(sums[m]).toBigDecimal()));
+        }
+        return result;
+    }
+
+    private LocalDate windowStart(int months) {
+        return LocalDate.now().minusMonths(normalizeWindow(months) - 1).withDayOfMonth(1);
+    }
+
+    // End of the current month, so future-dated entries this month are included
+    private LocalDate windowEnd() {
+        LocalDate today = LocalDate.now();
+        return today.withDayOfMonth(today.lengthOfMonth());
+    }
+
+    // The ledger's category codes as names; the category list is one query-cached findAll
+    private String[] categoryNames(ExpenseLedger ledger) {
+        Map<Long, String> byId = categoryService.getNamesById();
+        String[] names = new String[ledger.categoryCount()];
+        for (int code = 0; code < names.length; code++) {
+            names[code] = byId.get(ledger.categoryId(code));
+        }
+        return names;
+    }
+
+    // Epoch days of the 1st of each month from firstMonth on, plus the 1st after the last one
+    private static long[] monthBounds(LocalDate firstMonth, int months) {
+        long[] bounds = new long[months + 1];
+        for (int m = 0; m <= months; m++) {
+            bounds[m] = firstMonth.plusMonths(m).toEpochDay();
+        }
+        return bounds;
+    }
+}
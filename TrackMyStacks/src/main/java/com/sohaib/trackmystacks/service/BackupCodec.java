@@ -0,0 +1,137 @@
+package com.sohaib.trackmystacks.service;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Locale;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Reads and writes backup documents (BackupData, UserBackupData) in any of
+ * the supported encodings. All three carry the same document tree, so the
+ * backup DTOs and the streaming export/import code are format-agnostic.
+ *
+ * Import never trusts the file name: the encoding is sniffed from the first
+ * bytes (gzip magic 1F 8B, Smile header ":)\n", anything else is JSON).
+ */
+@Component
+public class BackupCodec {
+
+    public enum Format {
+        JSON("json", "application/json"),
+        JSON_GZIP("json.gz", "application/gzip"),
+        SMILE("smile", "application/x-jackson-smile");
+
+        private final String extension;
+        private final String contentType;
+
+        Format(String extension, String contentType) {
+            this.extension = extension;
+            this.contentType = contentType;
+        }
+
+        public String getExtension() { return extension; }
+        public String getContentType() { return contentType; }
+
+        /** Accepts the ?format= value of the export endpoints: json, gzip / json.gz, smile. */
+        public static Format fromParam(String value) {
+            if (value == null || value.isBlank()) {
+                return JSON;
+            }
+            return switch (value.trim().toLowerCase(Locale.ROOT)) {
+                case "json" -> JSON;
+                case "gzip", "gz", "json.gz" -> JSON_GZIP;
+                case "smile" -> SMILE;
+                default -> throw new IllegalArgumentException("Unknown backup format: " + value);
+            };
+        }
+    }
+
+    private static final int SNIFF_BYTES = 3;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // Same modules and settings as the JSON mapper, Smile encoding underneath
+    private ObjectMapper smileMapper;
+
+    @PostConstruct
+    void init() {
+        SmileFactory smile = SmileFactory.builder()
+                // usernames and category names repeat on every expense row
+                .enable(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES)
+                .build();
+        smileMapper = objectMapper.copyWith(smile);
+    }
+
+    /**
+     * Opens a generator over {@code out}. Closing the generator finishes the
+     * gzip trailer and closes {@code out}.
+     */
+    public JsonGenerator createGenerator(OutputStream out, Format format) throws IOException {
+        return switch (format) {
+            case JSON -> objectMapper.writerWithDefaultPrettyPrinter().createGenerator(out);
+            // No pretty-printing: whitespace only costs CPU once compressed
+            case JSON_GZIP -> objectMapper.createGenerator(new FastGzipOutputStream(out));
+            case SMILE -> smileMapper.createGenerator(out);
+        };
+    }
+
+    /** Opens a parser over {@code in}, detecting gzip and Smile from the leading bytes. */
+    public JsonParser createParser(InputStream in) throws IOException {
+        InputStream buffered = in.markSupported() ? in : new BufferedInputStream(in, 64 * 1024);
+        byte[] head = peek(buffered);
+        if (head.length >= 2 && (head[0] & 0xFF) == 0x1F && (head[1] & 0xFF) == 0x8B) {
+            // Compressed – look again underneath (a gzipped Smile file works too)
+            return createParser(new GZIPInputStream(buffered, 64 * 1024));
+        }
+        if (head.length == SNIFF_BYTES && head[0] == ':' && head[1] == ')' && head[2] == '\n') {
+            return smileMapper.createParser(buffered);
+        }
+        return objectMapper.createParser(buffered);
+    }
+
+    /** Reads a whole (small) document, e.g. a single user's backup. */
+    public <T> T read(InputStream in, Class<T> type) throws IOException {
+        try (JsonParser parser = createParser(in)) {
+            return objectMapper.readValue(parser, type);
+        }
+    }
+
+    /** Writes a whole (small) document in the given format and closes {@code out}. */
+    public void write(OutputStream out, Format format, Object value) throws IOException {
+        try (JsonGenerator gen = createGenerator(out, format)) {
+            gen.writeObject(value);
+        }
+    }
+
+    // Backup JSON is highly repetitive, so the fastest deflate level already
+    // gets most of the size win at a fraction of the default level's CPU cost
+    private static class FastGzipOutputStream extends GZIPOutputStream {
+        FastGzipOutputStream(OutputStream out) throws IOException {
+            super(out, 64 * 1024);
+            def.setLevel(Deflater.BEST_SPEED);
+        }
+    }
+
+    private static byte[] peek(InputStream in) throws IOException {
+        in.mark(SNIFF_BYTES);
+        byte[] head = in.readNBytes(SNIFF_BYTES);
+        in.reset();
+        return head;
+    }
+}
@@ -0,0 +1,146 @@
+package com.sohaib.trackmystacks.service;
+
+import java.io.FilterInputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Meters for backup exports and imports: a timer per run, plus rows and
+ * bytes per run as distribution summaries.
+ *
+ *   trackmystacks.backup.export / .import          {kind, outcome}
+ *   trackmystacks.backup.export.rows / .bytes      {kind}
+ *   trackmystacks.backup.import.rows / .bytes      {kind}
+ *
+ * kind is full, delta or chain (admin) or user (per-user backups). Rows
+ * are expenses plus paychecks. Sizes are only recorded for runs that
+ * succeed.
+ */
+@Component
+public class BackupMetrics {
+
+    public static final String KIND_FULL = "full";
+    public static final String KIND_DELTA = "delta";
+    public static final String KIND_CHAIN = "chain";
+    public static final String KIND_USER = "user";
+
+    private final MeterRegistry registry;
+
+    public BackupMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    public void recordExport(String kind, long nanos, long rows, long bytes) {
+        record("export", kind, nanos, rows, bytes);
+    }
+
+    public void recordExportFailure(String kind, long nanos) {
+        timer("export", kind, "failure").record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordImport(String kind, long nanos, long rows, long bytes) {
+        record("import", kind, nanos, rows, bytes);
+    }
+
+    public void recordImportFailure(String kind, long nanos) {
+        timer("import", kind, "failure").record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    private void record(String operation, String kind, long nanos, long rows, long bytes) {
+        timer(operation, kind, "success").record(nanos, TimeUnit.NANOSECONDS);
+        DistributionSummary.builder("trackmystacks.backup." + operation + ".rows")
+                .baseUnit("rows").tag("kind", kind).register(registry).record(rows);
+        DistributionSummary.builder("trackmystacks.backup." + operation + ".bytes")
+                .baseUnit("bytes").tag("kind", kind).register(registry).record(bytes);
+    }
+
+    private Timer timer(String operation, String kind, String outcome) {
+        return Timer.builder("trackmystacks.backup." + operation)
+                .tag("kind", kind).tag("outcome", outcome)
+                .register(registry);
+    }
+
+    // -------------------------------------------------------------------------
+    // Byte counting for streamed files
+    // -------------------------------------------------------------------------
+
+    /** Passes writes through and counts them. */
+    public static class CountingOutputStream extends FilterOutputStream {
+
+        private long count;
+
+        public CountingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+
+        public long getCount() {
+            return count;
+        }
+    }
+
+    /** Passes reads through and counts the bytes consumed. */
+    public static class CountingInputStream extends FilterInputStream {
+
+        private long count;
+
+        public CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = in.read();
+            if (b >= 0) {
+                count++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = in.read(b, off, len);
+            if (n > 0) {
+                count += n;
+            }
+            return n;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = in.skip(n);
+            count += skipped;
+            return skipped;
+        }
+
+        // A reset would count the re-read bytes twice; BackupCodec buffers the stream itself instead
+        @Override
+        public boolean markSupported() {
+            return false;
+        }
+
+        public long getCount() {
+            return count;
+        }
+    }
+}
@@ -1,35 +1,63 @@
 package com.sohaib.trackmystacks.service;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
+import org.hibernate.Session;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.InputStreamSource;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.sohaib.trackmystacks.dto.BackupData;
+import com.sohaib.trackmystacks.dto.ImportResult;
+import com.sohaib.trackmystacks.dto.UserBackupData;
 import com.sohaib.trackmystacks.model.Category;
+import com.sohaib.trackmystacks.model.DeletedRow;
 import com.sohaib.trackmystacks.model.Expense;
+import com.sohaib.trackmystacks.model.Paycheck;
 import com.sohaib.trackmystacks.model.User;
 import com.sohaib.trackmystacks.repository.CategoryRepository;
 import com.sohaib.trackmystacks.repository.ExpenseRepository;
+import com.sohaib.trackmystacks.repository.PaycheckRepository;
 import com.sohaib.trackmystacks.repository.UserRepository;
 
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
 /**
  * Handles full-database export and import for backup / restore scenarios.
  *
- * Export  – serialises every user, category, and expense into a portable
- *           BackupData DTO (BCrypt password hashes are preserved verbatim).
+ * Export  – serialises every user, category, paycheck and expense into a
+ *           portable BackupData document (BCrypt password hashes are preserved
+ *           verbatim), either as a DTO or streamed chunk by chunk to an
+ *           OutputStream. Given a `since` time it writes a delta instead: only
+ *           rows whose updated_at is later, plus tombstones from DeletionLog.
+ *
+ * Import  – restores a full backup, optionally followed by a chain of deltas,
+ *           parsed incrementally from the uploaded files (see Restore below for
+ *           the steps). Expenses are inserted in JDBC batches of
+ *           trackmystacks.backup.import-batch-size inside a single transaction.
  *
- * Import  – restores a previously exported snapshot:
- *           1. Wipes all expenses        (FK-safe first step)
- *           2. Replaces all categories
- *           3. Upserts users by username  (existing session user stays valid)
- *           4. Recreates all expenses     (references users by username)
+ * Per-user restore – replaces one user's expenses from a UserBackupData file
+ *           with one set-based DELETE and the same batched inserts, atomically.
  */
 @Service
 public class BackupService {
@@ -43,121 +71,699 @@ public class BackupService {
     @Autowired
     private ExpenseRepository expenseRepository;
 
+    @Autowired
+    private PaycheckRepository paycheckRepository;
+
+    @Autowired
+    private DeletionLog deletionLog;
+
+    @Autowired
+    private MonthlySummaryService monthlySummaryService;
+
+    @Autowired
+    private DashboardCache dashboardCache;
+
+    @Autowired
+    private EntityCache entityCache;
+
+    @Autowired
+    private ExpenseSearchIndexer searchIndexer;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private BackupCodec backupCodec;
+
+    @Autowired
+    private BackupMetrics backupMetrics;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${trackmystacks.backup.export-chunk-size:1000}")
+    private int exportChunkSize;
+
+    @Value("${trackmystacks.backup.import-batch-size:500}")
+    private int importBatchSize;
+
+    private static final TypeReference<List<BackupData.UserBackup>> USER_LIST = new TypeReference<>() {};
+    private static final TypeReference<List<BackupData.CategoryBackup>> CATEGORY_LIST = new TypeReference<>() {};
+    private static final TypeReference<List<BackupData.PaycheckBackup>> PAYCHECK_LIST = new TypeReference<>() {};
+    private static final TypeReference<List<BackupData.ExpenseBackup>> EXPENSE_LIST = new TypeReference<>() {};
+    private static final TypeReference<List<BackupData.DeletionBackup>> DELETION_LIST = new TypeReference<>() {};
+
+    // A delta re-sends rows changed shortly before `since`. A transaction that
+    // stamped updated_at before the previous export started but committed after
+    // it would otherwise fall between the two files. Replaying a row is harmless.
+    private static final Duration DELTA_OVERLAP = Duration.ofMinutes(1);
+
     // -------------------------------------------------------------------------
     // Export
     // -------------------------------------------------------------------------
 
+    /**
+     * Builds the whole snapshot in memory. Fine for small databases and tests;
+     * the admin download uses {@link #exportTo(OutputStream, BackupCodec.Format, LocalDateTime)} instead.
+     */
     @Transactional(readOnly = true)
     public BackupData exportData() {
         BackupData backup = new BackupData();
         backup.setExportedAt(LocalDateTime.now());
+        backup.setUsers(userRepository.findAll().stream().map(BackupService::toUserBackup).collect(Collectors.toList()));
+        backup.setCategories(categoryRepository.findAll().stream().map(BackupService::toCategoryBackup).collect(Collectors.toList()));
+        backup.setPaychecks(paycheckRepository.findAllWithUser().stream().map(BackupService::toPaycheckBackup).collect(Collectors.toList()));
+        backup.setExpenses(expenseRepository.findAllWithUser().stream().map(BackupService::toExpenseBackup).collect(Collectors.toList()));
+        return backup;
+    }
 
-        // --- Users ---
-        List<BackupData.UserBackup> userBackups = userRepository.findAll().stream().map(u -> {
-            BackupData.UserBackup ub = new BackupData.UserBackup();
-            ub.setOriginalId(u.getId());
-            ub.setUsername(u.getUsername());
-            ub.setEmail(u.getEmail());
-            ub.setPasswordHash(u.getPassword());   // already BCrypt hashed
-            ub.setAdmin(u.isAdmin());
-            ub.setCreatedAt(u.getCreatedAt());
-            return ub;
-        }).collect(Collectors.toList());
-        backup.setUsers(userBackups);
-
-        // --- Categories ---
-        List<BackupData.CategoryBackup> catBackups = categoryRepository.findAll().stream().map(c -> {
-            BackupData.CategoryBackup cb = new BackupData.CategoryBackup();
-            cb.setOriginalId(c.getId());
-            cb.setName(c.getName());
-            cb.setCreatedAt(c.getCreatedAt());
-            return cb;
-        }).collect(Collectors.toList());
-        backup.setCategories(catBackups);
-
-        // --- Expenses ---
-        // findAll() loads all expenses; user is lazily fetched within this transaction.
-        List<BackupData.ExpenseBackup> expBackups = expenseRepository.findAll().stream().map(e -> {
-            BackupData.ExpenseBackup eb = new BackupData.ExpenseBackup();
-            eb.setOriginalId(e.getId());
-            eb.setUsername(e.getUser().getUsername());   // resolve lazy proxy here
-            eb.setAmount(e.getAmount());
-            eb.setCategory(e.getCategory());
-            eb.setDescription(e.getDescription());
-            eb.setDate(e.getDate());
-            eb.setRecurring(e.isRecurring());
-            eb.setCreatedAt(e.getCreatedAt());
-            return eb;
-        }).collect(Collectors.toList());
-        backup.setExpenses(expBackups);
+    /**
+     * Writes the same document as {@link #exportData()} straight to {@code out},
+     * encoded as pretty JSON, gzipped JSON or Smile.
+     * Expenses are read in id-ordered chunks of {@code exportChunkSize} (owner joined in
+     * the same query) and the persistence context is cleared after each chunk, so heap
+     * use stays flat no matter how many rows the database holds.
+     *
+     * With a {@code since} time (the exportedAt of an earlier full or delta backup)
+     * only rows changed after it, and tombstones for rows deleted after it, are written.
+     */
+    @Transactional(readOnly = true)
+    public void exportTo(OutputStream out, BackupCodec.Format format, LocalDateTime since) throws IOException {
+        // Taken before reading anything: a row changed while the export runs is either
+        // in this file or stamped later than this, so the next delta picks it up
+        LocalDateTime exportedAt = LocalDateTime.now();
+        LocalDateTime changedAfter = since == null ? null : since.minus(DELTA_OVERLAP);
+        long started = System.nanoTime();
+        String kind = since == null ? BackupMetrics.KIND_FULL : BackupMetrics.KIND_DELTA;
+        BackupMetrics.CountingOutputStream counted = new BackupMetrics.CountingOutputStream(out);
+        long rows = 0;
 
-        return backup;
+        try (JsonGenerator gen = backupCodec.createGenerator(counted, format)) {
+            gen.writeStartObject();
+            gen.writeStringField("version", BackupData.FORMAT_VERSION);
+            gen.writeStringField("type", since == null ? BackupData.TYPE_FULL : BackupData.TYPE_DELTA);
+            if (since != null) {
+                gen.writeFieldName("since");
+                gen.writeObject(since);
+            }
+            gen.writeFieldName("exportedAt");
+            gen.writeObject(exportedAt);
+
+            // --- Deletes first, so a restore removes old rows before re-adding any with the same name ---
+            if (since != null) {
+                gen.writeArrayFieldStart("deletions");
+                for (DeletedRow d : deletionLog.findDeletedSince(changedAfter)) {
+                    gen.writeObject(toDeletionBackup(d));
+                }
+                gen.writeEndArray();
+            }
+
+            // --- Users, categories & paychecks: small tables, written directly ---
+            gen.writeArrayFieldStart("users");
+            for (User u : since == null ? userRepository.findAll() : userRepository.findByUpdatedAtAfter(changedAfter)) {
+                gen.writeObject(toUserBackup(u));
+            }
+            gen.writeEndArray();
+
+            gen.writeArrayFieldStart("categories");
+            for (Category c : since == null ? categoryRepository.findAll() : categoryRepository.findByUpdatedAtAfter(changedAfter)) {
+                gen.writeObject(toCategoryBackup(c));
+            }
+            gen.writeEndArray();
+
+            gen.writeArrayFieldStart("paychecks");
+            for (Paycheck p : since == null ? paycheckRepository.findAllWithUser() : paycheckRepository.findChangedSince(changedAfter)) {
+                gen.writeObject(toPaycheckBackup(p));
+                rows++;
+            }
+            gen.writeEndArray();
+            entityManager.clear();
+
+            // --- Expenses: keyset-scrolled in chunks ---
+            gen.writeArrayFieldStart("expenses");
+            long afterId = 0;
+            List<Expense> chunk;
+            do {
+                PageRequest page = PageRequest.of(0, exportChunkSize);
+                chunk = since == null
+                        ? expenseRepository.findChunkAfterId(afterId, page)
+                        : expenseRepository.findChangedChunkAfterId(changedAfter, afterId, page);
+                for (Expense e : chunk) {
+                    gen.writeObject(toExpenseBackup(e));
+                    afterId = e.getId();
+                }
+                rows += chunk.size();
+                gen.flush();
+                entityManager.clear();   // drop the chunk's entities before loading the next one
+            } while (chunk.size() == exportChunkSize);
+            gen.writeEndArray();
+
+            gen.writeEndObject();
+        } catch (IOException | RuntimeException e) {
+            backupMetrics.recordExportFailure(kind, System.nanoTime() - started);
+            throw e;
+        }
+        backupMetrics.recordExport(kind, System.nanoTime() - started, rows, counted.getCount());
+    }
+
+    // Entity → DTO mappers; package-private so the JMH benchmarks can time them on synthetic data
+    static BackupData.UserBackup toUserBackup(User u) {
+        BackupData.UserBackup ub = new BackupData.UserBackup();
+        ub.setOriginalId(u.getId());
+        ub.setUsername(u.getUsername());
+        ub.setEmail(u.getEmail());
+        ub.setPasswordHash(u.getPassword());   // already BCrypt hashed
+        ub.setAdmin(u.isAdmin());
+        ub.setCreatedAt(u.getCreatedAt());
+        return ub;
+    }
+
+    static BackupData.CategoryBackup toCategoryBackup(Category c) {
+        BackupData.CategoryBackup cb = new BackupData.CategoryBackup();
+        cb.setOriginalId(c.getId());
+        cb.setName(c.getName());
+        cb.setCreatedAt(c.getCreatedAt());
+        return cb;
+    }
+
+    static BackupData.PaycheckBackup toPaycheckBackup(Paycheck p) {
+        BackupData.PaycheckBackup pb = new BackupData.PaycheckBackup();
+        pb.setOriginalId(p.getId());
+        pb.setUsername(p.getUser().getUsername());
+        pb.setAmount(p.getAmount());
+        pb.setMonth(p.getMonth());
+        pb.setDescription(p.getDescription());
+        pb.setCreatedAt(p.getCreatedAt());
+        return pb;
+    }
+
+    static BackupData.ExpenseBackup toExpenseBackup(Expense e) {
+        BackupData.ExpenseBackup eb = new BackupData.ExpenseBackup();
+        eb.setOriginalId(e.getId());
+        eb.setUsername(e.getUser().getUsername());
+        eb.setAmount(e.getAmount());
+        eb.setCategory(e.getCategory().getName());
+        eb.setDescription(e.getDescription());
+        eb.setDate(e.getDate());
+        eb.setRecurring(e.isRecurring());
+        eb.setCreatedAt(e.getCreatedAt());
+        return eb;
+    }
+
+    static BackupData.DeletionBackup toDeletionBackup(DeletedRow d) {
+        BackupData.DeletionBackup db = new BackupData.DeletionBackup();
+        db.setEntity(d.getEntityType());
+        db.setOriginalId(d.getEntityId());
+        db.setKey(d.getEntityKey());
+        db.setDeletedAt(d.getDeletedAt());
+        return db;
     }
 
     // -------------------------------------------------------------------------
     // Import
     // -------------------------------------------------------------------------
 
+    /** Restores an already-parsed full snapshot. See {@link #importFrom(List)} for uploads. */
     @Transactional
-    public void importData(BackupData backup) {
+    public ImportResult importData(BackupData backup) {
+        checkChain(List.of(backup));
+        Restore restore = new Restore(false);
+        restore.beginDocument(backup);
+        if (backup.getCategories() != null) {
+            restore.categories(backup.getCategories());
+        }
+        if (backup.getUsers() != null) {
+            restore.users(backup.getUsers());
+        }
+        if (backup.getPaychecks() != null) {
+            restore.paychecks(backup.getPaychecks());
+        }
+        if (backup.getExpenses() != null) {
+            for (BackupData.ExpenseBackup eb : backup.getExpenses()) {
+                restore.expense(eb);
+            }
+        }
+        return restore.finish();
+    }
 
-        // Step 1 – wipe expenses first to avoid FK violations when touching users/categories
-        expenseRepository.deleteAll();
-        expenseRepository.flush();
+    /**
+     * Restores one full backup followed by any number of deltas, straight from
+     * the uploaded files, in any format {@link BackupCodec} can detect (JSON,
+     * gzipped JSON, Smile). Files may be given in any order: their headers are
+     * read first to sort them and to check that each delta starts no later
+     * than the backup before it ended.
+     *
+     * Users, categories and paychecks are read whole (they are small); expenses
+     * are read one element at a time and inserted in JDBC batches, so no file is
+     * ever materialised in memory. Everything runs in one transaction: any parse
+     * or insert error rolls the database back to where it was.
+     */
+    @Transactional(rollbackFor = Exception.class)
+    public ImportResult importFrom(List<? extends InputStreamSource> sources) throws IOException {
+        long started = System.nanoTime();
+        String kind = sources.size() > 1 ? BackupMetrics.KIND_CHAIN : BackupMetrics.KIND_FULL;
+        try {
+            List<ChainEntry> chain = new ArrayList<>();
+            for (InputStreamSource source : sources) {
+                chain.add(new ChainEntry(source, readHeader(source)));
+            }
+            chain.sort(Comparator.comparing((ChainEntry c) -> isDelta(c.header()))
+                    .thenComparing(c -> c.header().getExportedAt(), Comparator.nullsFirst(Comparator.naturalOrder())));
+            checkChain(chain.stream().map(ChainEntry::header).toList());
 
-        // Step 2 – replace categories entirely for a clean restore
-        categoryRepository.deleteAll();
-        categoryRepository.flush();
+            Restore restore = new Restore(chain.size() > 1);
+            long bytes = 0;
+            for (ChainEntry entry : chain) {
+                bytes += restoreDocument(restore, entry);
+            }
+            ImportResult result = restore.finish();
+            backupMetrics.recordImport(kind, System.nanoTime() - started,
+                    result.getPaychecks() + result.getExpenses(), bytes);
+            return result;
+        } catch (IOException | RuntimeException e) {
+            backupMetrics.recordImportFailure(kind, System.nanoTime() - started);
+            throw e;
+        }
+    }
 
-        if (backup.getCategories() != null) {
-            for (BackupData.CategoryBackup cb : backup.getCategories()) {
+    private record ChainEntry(InputStreamSource source, BackupData header) {}
+
+    private static boolean isDelta(BackupData backup) {
+        return BackupData.TYPE_DELTA.equals(backup.getType());
+    }
+
+    // First must be the only full backup; each delta must cover changes from (at the
+    // latest) the moment the previous file was exported, or rows could be missing.
+    private static void checkChain(List<BackupData> headers) {
+        long fulls = headers.stream().filter(h -> !isDelta(h)).count();
+        if (fulls != 1) {
+            throw new IllegalArgumentException("A restore needs exactly one full backup (got " + fulls + ")");
+        }
+        LocalDateTime previous = headers.get(0).getExportedAt();
+        for (BackupData delta : headers.subList(1, headers.size())) {
+            if (previous == null || delta.getSince() == null || delta.getSince().isAfter(previous)) {
+                throw new IllegalArgumentException("Delta exported at " + delta.getExportedAt()
+                        + " covers changes since " + delta.getSince()
+                        + ", but the backup before it was exported at " + previous);
+            }
+            previous = delta.getExportedAt();
+        }
+    }
+
+    // Reads the scalar fields ahead of the first array; our exports write them first
+    private BackupData readHeader(InputStreamSource source) throws IOException {
+        BackupData header = new BackupData();
+        try (JsonParser parser = backupCodec.createParser(source.getInputStream())) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IllegalArgumentException("Not a TrackMyStacks backup file");
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                JsonToken value = parser.nextToken();
+                if (value == JsonToken.START_ARRAY || value == JsonToken.START_OBJECT) {
+                    break;
+                }
+                switch (field) {
+                    case "version" -> header.setVersion(parser.getValueAsString());
+                    case "type" -> header.setType(parser.getValueAsString());
+                    case "since" -> header.setSince(objectMapper.readValue(parser, LocalDateTime.class));
+                    case "exportedAt" -> header.setExportedAt(objectMapper.readValue(parser, LocalDateTime.class));
+                    default -> { }
+                }
+            }
+        }
+        return header;
+    }
+
+    // Returns the size of the file in bytes
+    private long restoreDocument(Restore restore, ChainEntry entry) throws IOException {
+        restore.beginDocument(entry.header());
+        List<BackupData.PaycheckBackup> earlyPaychecks = null;
+        List<BackupData.ExpenseBackup> earlyExpenses = null;
+        BackupMetrics.CountingInputStream counted = new BackupMetrics.CountingInputStream(entry.source().getInputStream());
+
+        try (JsonParser parser = backupCodec.createParser(counted)) {
+            parser.nextToken();   // START_OBJECT, checked by readHeader
+            JsonToken token;
+            while ((token = parser.nextToken()) == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                JsonToken value = parser.nextToken();
+                if (value == JsonToken.VALUE_NULL) {
+                    continue;
+                }
+                switch (field) {
+                    case "deletions" -> restore.deletions(objectMapper.readValue(parser, DELETION_LIST));
+                    case "users" -> restore.users(objectMapper.readValue(parser, USER_LIST));
+                    case "categories" -> restore.categories(objectMapper.readValue(parser, CATEGORY_LIST));
+                    case "paychecks" -> {
+                        List<BackupData.PaycheckBackup> paychecks = objectMapper.readValue(parser, PAYCHECK_LIST);
+                        if (restore.hasUsers()) {
+                            restore.paychecks(paychecks);
+                        } else {
+                            earlyPaychecks = paychecks;
+                        }
+                    }
+                    case "expenses" -> {
+                        if (restore.hasUsers()) {
+                            // The normal case: our exports always list users first
+                            while (nextElement(parser)) {
+                                restore.expense(objectMapper.readValue(parser, BackupData.ExpenseBackup.class));
+                            }
+                        } else {
+                            // Owners not known yet – hold these until the users have been read
+                            earlyExpenses = objectMapper.readValue(parser, EXPENSE_LIST);
+                        }
+                    }
+                    default -> parser.skipChildren();
+                }
+            }
+            if (token != JsonToken.END_OBJECT) {
+                throw new IllegalArgumentException("Backup file is truncated");
+            }
+        }
+
+        if (earlyPaychecks != null) {
+            restore.paychecks(earlyPaychecks);
+        }
+        if (earlyExpenses != null) {
+            for (BackupData.ExpenseBackup eb : earlyExpenses) {
+                restore.expense(eb);
+            }
+        }
+        return counted.getCount();
+    }
+
+    // -------------------------------------------------------------------------
+    // Per-user export / restore
+    // -------------------------------------------------------------------------
+
+    /** The personal backup document for {@code expenses}, as downloaded from /expenses/backup/export. */
+    public UserBackupData buildUserBackup(String username, List<Expense> expenses) {
+        UserBackupData backup = new UserBackupData();
+        backup.setUsername(username);
+        backup.setExportedAt(LocalDateTime.now());
+        List<UserBackupData.ExpenseEntry> entries = new ArrayList<>(expenses.size());
+        for (Expense e : expenses) {
+            UserBackupData.ExpenseEntry entry = new UserBackupData.ExpenseEntry();
+            entry.setAmount(e.getAmount());
+            entry.setCategory(e.getCategory().getName());
+            entry.setDescription(e.getDescription());
+            entry.setDate(e.getDate());
+            entry.setRecurring(e.isRecurring());
+            entry.setCreatedAt(e.getCreatedAt());
+            entries.add(entry);
+        }
+        backup.setExpenses(entries);
+        return backup;
+    }
+
+    /**
+     * Replaces all of {@code user}'s expenses with those in a UserBackupData file
+     * (any format BackupCodec detects). The old rows go in a single DELETE (after
+     * one INSERT ... SELECT of tombstones for delta backups); entries are read one
+     * at a time and inserted in JDBC batches; the rollup is recomputed once at the
+     * end. It all commits or rolls back together, so a bad file changes nothing.
+     */
+    @Transactional(rollbackFor = Exception.class)
+    public ImportResult restoreUserExpenses(User user, InputStream in) throws IOException {
+        long started = System.nanoTime();
+        BackupMetrics.CountingInputStream counted = new BackupMetrics.CountingInputStream(in);
+        try {
+            ImportResult result = replaceUserExpenses(user, counted);
+            backupMetrics.recordImport(BackupMetrics.KIND_USER, System.nanoTime() - started,
+                    result.getExpenses(), counted.getCount());
+            return result;
+        } catch (IOException | RuntimeException e) {
+            backupMetrics.recordImportFailure(BackupMetrics.KIND_USER, System.nanoTime() - started);
+            throw e;
+        }
+    }
+
+    private ImportResult replaceUserExpenses(User user, InputStream in) throws IOException {
+        long startedAt = System.currentTimeMillis();
+        entityManager.unwrap(Session.class).setJdbcBatchSize(importBatchSize);
+        User owner = entityManager.getReference(User.class, user.getId());
+        Map<String, Long> categoryIds = new HashMap<>();
+        int replaced = 0;
+        long restored = 0;
+        int pending = 0;
+
+        try (JsonParser parser = backupCodec.createParser(in)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IllegalArgumentException("Not a TrackMyStacks backup file");
+            }
+            JsonToken token;
+            while ((token = parser.nextToken()) == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                JsonToken value = parser.nextToken();
+                if (!field.equals("expenses") || value == JsonToken.VALUE_NULL) {
+                    parser.skipChildren();
+                    continue;
+                }
+                deletionLog.recordExpensesOf(user);
+                replaced = expenseRepository.deleteAllByUserInBatch(user);
+
+                while (nextElement(parser)) {
+                    UserBackupData.ExpenseEntry entry = objectMapper.readValue(parser, UserBackupData.ExpenseEntry.class);
+                    Category category = entityManager.getReference(Category.class, categoryId(categoryIds, entry.getCategory()));
+                    Expense expense = new Expense(owner, entry.getAmount(), category,
+                            entry.getDescription(), entry.getDate(), entry.isRecurring());
+                    if (entry.getCreatedAt() != null) {
+                        expense.setCreatedAt(entry.getCreatedAt());
+                    }
+                    entityManager.persist(expense);
+                    restored++;
+                    if (++pending >= importBatchSize) {
+                        entityManager.flush();
+                        entityManager.clear();
+                        owner = entityManager.getReference(User.class, user.getId());
+                        pending = 0;
+                    }
+                }
+            }
+            if (token != JsonToken.END_OBJECT) {
+                throw new IllegalArgumentException("Backup file is truncated");
+            }
+        }
+
+        entityManager.flush();
+        entityManager.clear();
+        monthlySummaryService.rebuildForUser(user);   // also evicts the user's cached dashboards and ledger
+        searchIndexer.reindexUser(user.getId());
+        return new ImportResult(1, 0, 0, 0, restored, replaced, 0, System.currentTimeMillis() - startedAt);
+    }
+
+    // Backups name categories; expenses need the id. A name the category list doesn't have
+    // (deleted since the backup, or back when a category in use could be deleted) is added.
+    private Long categoryId(Map<String, Long> ids, String name) {
+        Long id = ids.get(name);
+        if (id == null) {
+            id = categoryRepository.findByName(name).map(Category::getId).orElse(null);
+            if (id == null) {
+                id = categoryRepository.save(new Category(name)).getId();
+                dashboardCache.evictAll();   // every dashboard lists the categories
+            }
+            ids.put(name, id);
+        }
+        return id;
+    }
+
+    // Advances to the next array element; false at the end of the array
+    private static boolean nextElement(JsonParser parser) throws IOException {
+        JsonToken token = parser.nextToken();
+        if (token == null) {
+            throw new IllegalArgumentException("Backup file is truncated");
+        }
+        return token != JsonToken.END_ARRAY;
+    }
+
+    /**
+     * One restore in progress. Steps, in the order the caller feeds them:
+     *   1. (beginDocument, full backup) wipe all expenses and categories with bulk DELETEs
+     *   2. apply deletions              (delta backups only)
+     *   3. replace / add categories
+     *   4. upsert users by username     (existing session user stays valid)
+     *   5. replace / upsert paychecks   (owners resolved by username)
+     *   6. insert / update expenses in batches
+     *   7. (finish) rebuild the monthly rollup and drop cached dashboards
+     * Steps 1-6 repeat for each file in a chain. Rows get new ids on insert, so when
+     * deltas follow, the old-to-new id of every paycheck and expense is remembered
+     * to find the row a later update or delete refers to.
+     */
+    private class Restore {
+
+        private final long startedAt = System.currentTimeMillis();
+        private final Map<String, Long> userIds = new HashMap<>();
+        private final Map<String, Long> categoryIds = new HashMap<>();
+        private final boolean trackIds;
+        private final Map<Long, Long> paycheckIds = new HashMap<>();
+        private final Map<Long, Long> expenseIds = new HashMap<>();
+        private boolean delta;
+        private boolean usersSeen;
+        private int documents;
+        private int users;
+        private int categories;
+        private int paychecks;
+        private long expenses;
+        private long deleted;
+        private long skipped;
+        private int pending;
+
+        Restore(boolean trackIds) {
+            this.trackIds = trackIds;
+            entityManager.unwrap(Session.class).setJdbcBatchSize(importBatchSize);
+        }
+
+        void beginDocument(BackupData header) {
+            flushBatch();
+            documents++;
+            delta = isDelta(header);
+            usersSeen = false;
+            if (!delta) {
+                // Wipe expenses first to avoid FK violations when touching users/categories
+                expenseRepository.deleteAllInBatch();
+                categoryRepository.deleteAllInBatch();
+                categoryIds.clear();
+                // Old tombstones name ids that are gone now; deltas start again from the next full backup
+                deletionLog.clear();
+            }
+        }
+
+        boolean hasUsers() {
+            return usersSeen;
+        }
+
+        void deletions(List<BackupData.DeletionBackup> backups) {
+            flushBatch();
+            List<Long> expenseDeletes = new ArrayList<>();
+            List<Long> paycheckDeletes = new ArrayList<>();
+            for (BackupData.DeletionBackup db : backups) {
+                switch (db.getEntity()) {
+                    case DeletedRow.EXPENSE -> addIfPresent(expenseDeletes, expenseIds.remove(db.getOriginalId()));
+                    case DeletedRow.PAYCHECK -> addIfPresent(paycheckDeletes, paycheckIds.remove(db.getOriginalId()));
+                    case DeletedRow.CATEGORY -> deleteCategory(db.getKey());
+                    case DeletedRow.USER -> deleteUser(db.getKey());
+                    default -> skipped++;
+                }
+            }
+            for (List<Long> ids : partition(expenseDeletes)) {
+                expenseRepository.deleteAllByIdInBatch(ids);
+            }
+            for (List<Long> ids : partition(paycheckDeletes)) {
+                paycheckRepository.deleteAllByIdInBatch(ids);
+            }
+            deleted += expenseDeletes.size() + paycheckDeletes.size();
+        }
+
+        // Skipped while expenses here still use it, e.g. ones this delta moves to another category further on
+        private void deleteCategory(String name) {
+            categoryIds.remove(name);
+            categoryRepository.findByName(name).ifPresent(c -> {
+                if (expenseRepository.existsByCategory(c)) {
+                    skipped++;
+                    return;
+                }
+                categoryRepository.delete(c);
+                deleted++;
+            });
+        }
+
+        // A user goes together with everything that references them
+        private void deleteUser(String username) {
+            userIds.remove(username);
+            userRepository.findByUsername(username).ifPresent(user -> {
+                expenseRepository.deleteAllByUserInBatch(user);
+                paycheckRepository.deleteAllByUserInBatch(user);
+                monthlySummaryService.deleteAllForUser(user);
+                userRepository.delete(user);
+                deleted++;
+            });
+        }
+
+        void categories(List<BackupData.CategoryBackup> backups) {
+            for (BackupData.CategoryBackup cb : backups) {
+                if (delta && categoryRepository.existsByName(cb.getName())) {
+                    continue;   // categories only have a name, so nothing to update
+                }
                 Category cat = new Category(cb.getName());
                 if (cb.getCreatedAt() != null) {
                     cat.setCreatedAt(cb.getCreatedAt());
                 }
-                categoryRepository.save(cat);
+                cat = categoryRepository.save(cat);
+                categoryIds.put(cat.getName(), cat.getId());
+                categories++;
             }
         }
 
-        // Step 3 – upsert users by username
-        // Updating existing records keeps the current session user valid
-        // (Spring Security won't force a logout when the same DB row is updated).
-        Map<String, User> savedUsers = new HashMap<>();
-
-        if (backup.getUsers() != null) {
-            for (BackupData.UserBackup ub : backup.getUsers()) {
+        void users(List<BackupData.UserBackup> backups) {
+            usersSeen = true;
+            for (BackupData.UserBackup ub : backups) {
                 Optional<User> existing = userRepository.findByUsername(ub.getUsername());
                 User user;
                 if (existing.isPresent()) {
                     // Update in-place – preserves the primary key so sessions stay valid
                     user = existing.get();
                     user.setEmail(ub.getEmail());
-                    user.setPassword(ub.getPasswordHash());   // restore original BCrypt hash
+                    user.setPassword(ub.getPasswordHash());   // restore original hash; weak ones are upgraded at next login
                     user.setAdmin(ub.isAdmin());
                 } else {
-                    // Brand-new user – store the BCrypt hash directly (skip re-encoding)
+                    // Brand-new user – store the hash directly (skip re-encoding)
                     user = new User(ub.getUsername(), ub.getEmail(), ub.getPasswordHash(), ub.isAdmin());
                     if (ub.getCreatedAt() != null) {
                         user.setCreatedAt(ub.getCreatedAt());
                     }
                 }
                 user = userRepository.saveAndFlush(user);
-                savedUsers.put(user.getUsername(), user);
+                userIds.put(user.getUsername(), user.getId());
+                users++;
             }
         }
 
-        // Step 4 – recreate expenses, resolving owners by username
-        if (backup.getExpenses() != null) {
-            for (BackupData.ExpenseBackup eb : backup.getExpenses()) {
-                User owner = savedUsers.get(eb.getUsername());
-                if (owner == null) {
-                    // Referenced user not present in backup – skip to preserve integrity
+        void paychecks(List<BackupData.PaycheckBackup> backups) {
+            if (!delta) {
+                // Only once the file is known to carry paychecks: backups from
+                // before 1.1 have none, and restoring one leaves them alone
+                paycheckRepository.deleteAllInBatch();
+            }
+            for (BackupData.PaycheckBackup pb : backups) {
+                Long ownerId = userIds.get(pb.getUsername());
+                if (ownerId == null) {
+                    skipped++;
                     continue;
                 }
-                Expense expense = new Expense(
-                        owner,
+                Paycheck paycheck = findExisting(Paycheck.class, paycheckIds, pb.getOriginalId());
+                if (paycheck == null) {
+                    paycheck = new Paycheck(entityManager.getReference(User.class, ownerId),
+                            pb.getAmount(), pb.getMonth(), pb.getDescription());
+                    if (pb.getCreatedAt() != null) {
+                        paycheck.setCreatedAt(pb.getCreatedAt());
+                    }
+                    entityManager.persist(paycheck);
+                    remember(paycheckIds, pb.getOriginalId(), paycheck.getId());
+                } else {
+                    paycheck.setAmount(pb.getAmount());
+                    paycheck.setMonth(pb.getMonth());
+                    paycheck.setDescription(pb.getDescription());
+                }
+                paychecks++;
+            }
+        }
+
+        void expense(BackupData.ExpenseBackup eb) {
+            Long ownerId = userIds.get(eb.getUsername());
+            if (ownerId == null) {
+                // Referenced user not present in backup – skip to preserve integrity
+                skipped++;
+                return;
+            }
+            // getReference: a proxy carrying just the id, no SELECT per row
+            Category category = entityManager.getReference(Category.class, categoryId(categoryIds, eb.getCategory()));
+            Expense expense = findExisting(Expense.class, expenseIds, eb.getOriginalId());
+            if (expense == null) {
+                expense = new Expense(
+                        entityManager.getReference(User.class, ownerId),
                         eb.getAmount(),
-                        eb.getCategory(),
+                        category,
                         eb.getDescription(),
                         eb.getDate(),
                         eb.isRecurring()
@@ -165,8 +771,64 @@ public class BackupService {
                 if (eb.getCreatedAt() != null) {
                     expense.setCreatedAt(eb.getCreatedAt());
                 }
-                expenseRepository.save(expense);
+                entityManager.persist(expense);
+                remember(expenseIds, eb.getOriginalId(), expense.getId());
+            } else {
+                expense.setAmount(eb.getAmount());
+                expense.setCategory(category);
+                expense.setDescription(eb.getDescription());
+                expense.setDate(eb.getDate());
+                expense.setRecurring(eb.isRecurring());
+            }
+            expenses++;
+
+            if (++pending >= importBatchSize) {
+                flushBatch();
+            }
+        }
+
+        ImportResult finish() {
+            flushBatch();
+            // Expenses were replaced wholesale, so recompute the rollup in one pass
+            monthlySummaryService.rebuildAll();
+            dashboardCache.evictAll();
+            entityCache.evictAll();   // users and categories were rewritten wholesale
+            searchIndexer.reindexAll();
+            return new ImportResult(documents, users, categories, paychecks, expenses, deleted, skipped,
+                    System.currentTimeMillis() - startedAt);
+        }
+
+        // The row a delta's update refers to, if an earlier file in this chain restored it
+        private <T> T findExisting(Class<T> type, Map<Long, Long> ids, Long originalId) {
+            Long id = delta && originalId != null ? ids.get(originalId) : null;
+            return id == null ? null : entityManager.find(type, id);
+        }
+
+        private void remember(Map<Long, Long> ids, Long originalId, Long newId) {
+            if (trackIds && originalId != null) {
+                ids.put(originalId, newId);
+            }
+        }
+
+        private static void addIfPresent(List<Long> list, Long id) {
+            if (id != null) {
+                list.add(id);
             }
         }
+
+        private List<List<Long>> partition(List<Long> ids) {
+            List<List<Long>> parts = new ArrayList<>();
+            for (int i = 0; i < ids.size(); i += importBatchSize) {
+                parts.add(ids.subList(i, Math.min(ids.size(), i + importBatchSize)));
+            }
+            return parts;
+        }
+
+        // Send the queued INSERTs as one JDBC batch, then forget the entities
+        private void flushBatch() {
+            entityManager.flush();
+            entityManager.clear();
+            pending = 0;
+        }
     }
 }
@@ -1,12 +1,16 @@
 package com.sohaib.trackmystacks.service;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.sohaib.trackmystacks.model.Category;
 import com.sohaib.trackmystacks.repository.CategoryRepository;
+import com.sohaib.trackmystacks.repository.ExpenseRepository;
 
 @Service
 public class CategoryService {
@@ -14,17 +18,50 @@ public class CategoryService {
     @Autowired
     private CategoryRepository categoryRepository;
     
+    @Autowired
+    private ExpenseRepository expenseRepository;
+    
+    // Every user's dashboard shows the category list
+    @Autowired
+    private DashboardCache dashboardCache;
+    
+    @Autowired
+    private DeletionLog deletionLog;
+    
     public List<Category> getAllCategories() {
         return categoryRepository.findAll();
     }
     
+    // Category names for ids held outside the entities (ExpenseLedger); one cached query
+    public Map<Long, String> getNamesById() {
+        Map<Long, String> names = new HashMap<>();
+        for (Category category : categoryRepository.findAll()) {
+            names.put(category.getId(), category.getName());
+        }
+        return names;
+    }
+    
     public Category createCategory(String name) {
         Category category = new Category(name);
-        return categoryRepository.save(category);
+        category = categoryRepository.save(category);
+        dashboardCache.evictAll();
+        return category;
     }
     
-    public void deleteCategory(Long id) {
-        categoryRepository.deleteById(id);
+    /** Deletes the category unless expenses still reference it; false if they do. */
+    @Transactional
+    public boolean deleteCategory(Long id) {
+        Category category = categoryRepository.findById(id).orElse(null);
+        if (category == null) {
+            return true;
+        }
+        if (expenseRepository.existsByCategory(category)) {
+            return false;
+        }
+        categoryRepository.delete(category);
+        deletionLog.recordCategory(category);
+        dashboardCache.evictAll();
+        return true;
     }
     
     public boolean categoryExists(String name) {
@@ -2,36 +2,45 @@
 package com.sohaib.trackmystacks.service;
 
 // Importing necessary classes for user details and Spring annotations
-import java.util.Collections;
-
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.sohaib.trackmystacks.model.User;
 import com.sohaib.trackmystacks.repository.UserRepository;
 
 // The @Service annotation indicates that this class is a service component in the Spring framework. It is responsible for containing business logic related to user details and interacting with the UserRepository to retrieve user information from the database for authentication purposes.
 @Service
-public class CustomUserDetailsService implements UserDetailsService {
+public class CustomUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
     // The UserRepository is injected into this service to allow it to access user data from the database. This is done using the @Autowired annotation, which tells Spring to automatically wire the UserRepository bean into this class.    
     @Autowired
     private UserRepository userRepository;
-    // The loadUserByUsername method is overridden from the UserDetailsService interface. It takes a username as input and attempts to retrieve the corresponding User entity from the database using the UserRepository. If the user is not found, a UsernameNotFoundException is thrown. If the user is found, a UserDetails object is created and returned, containing the user's username, password, and authorities (roles). The role is determined based on whether the user is an admin or not, and appropriate authorities are assigned accordingly.
+
+    @Autowired
+    private EntityCache entityCache;
+    // The loadUserByUsername method is overridden from the UserDetailsService interface. It takes a username as input and attempts to retrieve the corresponding User entity from the database using the UserRepository. If the user is not found, a UsernameNotFoundException is thrown. If the user is found, a UserPrincipal is created and returned, containing the user's id, username, password, and authorities (roles). The role is determined based on whether the user is an admin or not, and appropriate authorities are assigned accordingly.
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
         User user = userRepository.findByUsername(username)
             .orElseThrow(() -> new UsernameNotFoundException("User not found: " + username));
         
-        String role = user.isAdmin() ? "ROLE_ADMIN" : "ROLE_USER";
-        
-        return new org.springframework.security.core.userdetails.User(
-            user.getUsername(),
-            user.getPassword(),
-            Collections.singletonList(new SimpleGrantedAuthority(role))
-        );
+        // The principal keeps the id and role, so controllers need no further lookup (see UserPrincipal)
+        return new UserPrincipal(user);
+    }
+
+    // Called by Spring Security right after a successful login whenever the PasswordEncoder reports that the stored hash is weaker than what it would create now (a lower BCrypt cost, or a legacy hash without the {bcrypt} prefix). The freshly computed hash replaces the old one, so hashes are upgraded gradually as users log in, without anyone having to reset a password. The user's second-level cache entry is evicted so the old hash is not served from the cache afterwards.
+    @Override
+    @Transactional
+    public UserDetails updatePassword(UserDetails details, String newEncodedPassword) {
+        User user = userRepository.findByUsername(details.getUsername())
+            .orElseThrow(() -> new UsernameNotFoundException("User not found: " + details.getUsername()));
+        user.setPassword(newEncodedPassword);
+        User saved = userRepository.save(user);
+        entityCache.evictUser(saved.getId());
+        return new UserPrincipal(saved);
     }
 }
\ No newline at end of file
@@ -0,0 +1,97 @@
+package com.sohaib.trackmystacks.service;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.sohaib.trackmystacks.dto.DashboardSnapshot;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Bounded per-(user, window) cache of assembled dashboard snapshots.
+ *
+ * Size and idle lifetime come from trackmystacks.dashboard-cache.max-size / .ttl.
+ * Services that change anything shown on the dashboard call evictUser or
+ * evictAll. Inside a transaction the entry is dropped immediately and again
+ * after commit, so a view rendered while the write was in flight can't put
+ * stale data back. Kept separate from DashboardService so the write-side
+ * services can depend on it without a circular reference.
+ */
+@Component
+public class DashboardCache implements MeterBinder {
+
+    private final Cache<String, DashboardSnapshot> cache;
+
+    public DashboardCache(
+            @Value("${trackmystacks.dashboard-cache.max-size:1000}") long maxSize,
+            @Value("${trackmystacks.dashboard-cache.ttl:5m}") Duration ttl) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+
+    public DashboardSnapshot get(Long userId, int months, Supplier<DashboardSnapshot> loader) {
+        return cache.get(userId + ":" + months, k -> loader.get());
+    }
+
+    /** Drops every cached window for one user. */
+    public void evictUser(Long userId) {
+        if (userId == null) {
+            return;
+        }
+        String prefix = userId + ":";
+        Runnable evict = () -> cache.asMap().keySet().removeIf(k -> k.startsWith(prefix));
+        evict.run();
+        runAfterCommit(evict);
+    }
+
+    /** Drops everything, for changes visible to all users (categories, full restores). */
+    public void evictAll() {
+        cache.invalidateAll();
+        runAfterCommit(cache::invalidateAll);
+    }
+
+    /** The same counters as cache.gets / cache.evictions meters, tagged cache=dashboard. */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, "dashboard");
+    }
+
+    /** Hit/miss counters for the admin cache-stats endpoint. */
+    public Map<String, Object> getStats() {
+        CacheStats stats = cache.stats();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("size", cache.estimatedSize());
+        result.put("hits", stats.hitCount());
+        result.put("misses", stats.missCount());
+        result.put("hitRate", stats.hitRate());
+        result.put("evictions", stats.evictionCount());
+        result.put("averageLoadMillis", stats.averageLoadPenalty() / 1_000_000.0);
+        return result;
+    }
+
+    private static void runAfterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        }
+    }
+}
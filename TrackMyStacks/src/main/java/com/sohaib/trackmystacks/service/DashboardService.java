@@ -0,0 +1,51 @@
+package com.sohaib.trackmystacks.service;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import com.sohaib.trackmystacks.config.MetricsConfig;
+import com.sohaib.trackmystacks.dto.DashboardSnapshot;
+import com.sohaib.trackmystacks.dto.ExpensePage;
+import com.sohaib.trackmystacks.model.User;
+
+import io.micrometer.core.annotation.Timed;
+
+/**
+ * Assembles the dashboard model for a user and comparison window.
+ * Results are served from DashboardCache until that user's data changes,
+ * so repeat views (e.g. after every add/edit redirect) skip the queries.
+ */
+@Service
+@Timed(MetricsConfig.SERVICE_TIMER)
+public class DashboardService {
+
+    @Autowired
+    private DashboardCache dashboardCache;
+
+    @Autowired
+    private ExpenseService expenseService;
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Autowired
+    private PaycheckService paycheckService;
+
+    public DashboardSnapshot getSnapshot(User user, int months) {
+        return dashboardCache.get(user.getId(), months, () -> buildSnapshot(user, months));
+    }
+
+    private DashboardSnapshot buildSnapshot(User user, int months) {
+        // Only the first page is rendered server-side; the rest streams in via /expenses/page
+        ExpensePage firstPage = expenseService.getExpensePage(user, null, ExpenseService.DEFAULT_PAGE_SIZE);
+        return new DashboardSnapshot(
+                List.copyOf(firstPage.getItems()),
+                firstPage.getNextCursor(),
+                expenseService.getTotalByUser(user),
+                List.copyOf(categoryService.getAllCategories()),
+                List.copyOf(paycheckService.getAllPaychecksByUser(user)),
+                List.copyOf(paycheckService.getMonthlyComparison(user, months)));
+    }
+}
@@ -0,0 +1,56 @@
+package com.sohaib.trackmystacks.service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import com.sohaib.trackmystacks.model.Category;
+import com.sohaib.trackmystacks.model.DeletedRow;
+import com.sohaib.trackmystacks.model.Expense;
+import com.sohaib.trackmystacks.model.Paycheck;
+import com.sohaib.trackmystacks.model.User;
+import com.sohaib.trackmystacks.repository.DeletedRowRepository;
+
+/**
+ * Writes a tombstone (DeletedRow) for every user, category, expense and
+ * paycheck the app deletes, so delta backups can carry deletes as well as
+ * changed rows. Callers record inside the same transaction as the delete.
+ */
+@Component
+public class DeletionLog {
+
+    @Autowired
+    private DeletedRowRepository deletedRowRepository;
+
+    public void recordExpense(Expense expense) {
+        deletedRowRepository.save(new DeletedRow(DeletedRow.EXPENSE, expense.getId(), null));
+    }
+
+    /** Tombstones every expense the user owns; call just before deleting them in bulk. */
+    public void recordExpensesOf(User user) {
+        deletedRowRepository.recordExpensesOf(user, LocalDateTime.now());
+    }
+
+    public void recordPaycheck(Paycheck paycheck) {
+        deletedRowRepository.save(new DeletedRow(DeletedRow.PAYCHECK, paycheck.getId(), null));
+    }
+
+    public void recordCategory(Category category) {
+        deletedRowRepository.save(new DeletedRow(DeletedRow.CATEGORY, category.getId(), category.getName()));
+    }
+
+    public void recordUser(User user) {
+        deletedRowRepository.save(new DeletedRow(DeletedRow.USER, user.getId(), user.getUsername()));
+    }
+
+    public List<DeletedRow> findDeletedSince(LocalDateTime since) {
+        return deletedRowRepository.findDeletedSince(since);
+    }
+
+    /** Forgets all tombstones, e.g. after a full restore starts a new backup lineage. */
+    public void clear() {
+        deletedRowRepository.deleteAllInBatch();
+    }
+}
@@ -0,0 +1,97 @@
+package com.sohaib.trackmystacks.service;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.sohaib.trackmystacks.config.HibernateCacheConfig;
+import com.sohaib.trackmystacks.model.User;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Front for Hibernate's second-level cache (see {@link HibernateCacheConfig}).
+ *
+ * Hibernate keeps the regions coherent on its own for everything that goes
+ * through the EntityManager, HQL bulk statements included. evictAll is for
+ * writes that replace whole tables at once (backup restores), where dropping
+ * everything is cheaper than reasoning about what might be stale. Like
+ * {@link DashboardCache}, it evicts immediately and again after commit.
+ * evictUser does the same for one user whose credentials just changed, so no
+ * node keeps authenticating against the old password hash.
+ */
+@Component
+public class EntityCache {
+
+    private static final List<String> REGIONS = List.of(
+            HibernateCacheConfig.USERS,
+            HibernateCacheConfig.USERS_BY_USERNAME,
+            HibernateCacheConfig.CATEGORIES,
+            HibernateCacheConfig.CATEGORIES_BY_NAME,
+            RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME);
+
+    private final SessionFactory sessionFactory;
+
+    public EntityCache(EntityManagerFactory entityManagerFactory) {
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+    }
+
+    /** Drops every cached entity, natural id and query result. */
+    public void evictAll() {
+        Cache cache = sessionFactory.getCache();
+        cache.evictAllRegions();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cache.evictAllRegions();
+                }
+            });
+        }
+    }
+
+    /** Drops one user's cached entity; the username-to-id mapping stays valid. */
+    public void evictUser(Long userId) {
+        Cache cache = sessionFactory.getCache();
+        cache.evictEntityData(User.class, userId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cache.evictEntityData(User.class, userId);
+                }
+            });
+        }
+    }
+
+    /** Per-region hit/miss/put counters for the admin cache-stats endpoint. */
+    public Map<String, Object> getStats() {
+        Statistics statistics = sessionFactory.getStatistics();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("statisticsEnabled", statistics.isStatisticsEnabled());
+        for (String region : REGIONS) {
+            CacheRegionStatistics stats = statistics.getCacheRegionStatistics(region);
+            if (stats == null) {
+                continue;
+            }
+            long hits = stats.getHitCount();
+            long misses = stats.getMissCount();
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("hits", hits);
+            entry.put("misses", misses);
+            entry.put("puts", stats.getPutCount());
+            entry.put("hitRate", hits + misses == 0 ? 0.0 : (double) hits / (hits + misses));
+            result.put(region, entry);
+        }
+        return result;
+    }
+}
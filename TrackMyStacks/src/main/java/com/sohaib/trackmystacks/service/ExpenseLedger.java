@@ -0,0 +1,266 @@
+package com.sohaib.trackmystacks.service;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import com.sohaib.trackmystacks.model.Money;
+import com.sohaib.trackmystacks.model.MoneyAccumulator;
+
+/**
+ * One user's expenses as parallel primitive arrays, sorted by (date, id).
+ *
+ * Amounts are cents, dates are epoch days and categories are codes into
+ * {@link #categoryId(int)}. A running total ({@code prefix}) turns any date
+ * range sum into two binary searches. Category breakdowns walk the rows in
+ * range and add into a long[] cell per (bucket, category), so answering a
+ * query allocates only the result arrays, never anything per row.
+ *
+ * Every addition is overflow-checked, as in {@link MoneyAccumulator}, so a
+ * total is exact or an ArithmeticException.
+ *
+ * Instances are immutable: {@link #with} and {@link #without} return a copy,
+ * so readers never need a lock. See {@link ExpenseLedgerCache}.
+ */
+public final class ExpenseLedger {
+
+    private final long[] ids;
+    private final int[] days;
+    private final long[] cents;
+    private final int[] categoryCodes;
+    private final long[] categories;
+    // prefix[i] = sum of cents[0..i-1]
+    private final long[] prefix;
+
+    private ExpenseLedger(long[] ids, int[] days, long[] cents, int[] categoryCodes, long[] categories) {
+        this.ids = ids;
+        this.days = days;
+        this.cents = cents;
+        this.categoryCodes = categoryCodes;
+        this.categories = categories;
+        this.prefix = new long[ids.length + 1];
+        MoneyAccumulator running = new MoneyAccumulator();
+        for (int i = 0; i < ids.length; i++) {
+            prefix[i + 1] = running.addCents(cents[i]).cents();
+        }
+    }
+
+    public int size() {
+        return ids.length;
+    }
+
+    /** Number of category codes in use; codes run from 0 to this minus one. */
+    public int categoryCount() {
+        return categories.length;
+    }
+
+    /** The id of the category behind {@code code}. */
+    public long categoryId(int code) {
+        return categories[code];
+    }
+
+    /** Sum of every expense. */
+    public Money total() {
+        return Money.ofCents(prefix[ids.length]);
+    }
+
+    /** Sum of the expenses dated {@code fromDay}..{@code toDay} (epoch days, inclusive). */
+    public Money sum(long fromDay, long toDay) {
+        int from = lowerBound(fromDay);
+        int to = upperBound(toDay);
+        return to > from ? Money.ofCents(prefix[to] - prefix[from]) : Money.ZERO;
+    }
+
+    /** Number of expenses dated {@code fromDay}..{@code toDay} (inclusive). */
+    public int count(long fromDay, long toDay) {
+        return Math.max(0, upperBound(toDay) - lowerBound(fromDay));
+    }
+
+    /**
+     * Per-bucket sums in cents for consecutive date buckets: bucket i covers
+     * {@code bounds[i]} up to, not including, {@code bounds[i + 1]}.
+     */
+    public long[] sumsBetween(long[] bounds) {
+        long[] result = new long[bounds.length - 1];
+        int from = lowerBound(bounds[0]);
+        for (int b = 0; b < result.length; b++) {
+            int to = lowerBound(bounds[b + 1]);
+            result[b] = prefix[to] - prefix[from];
+            from = to;
+        }
+        return result;
+    }
+
+    /**
+     * Per-(bucket, category) sums in cents for consecutive date buckets as in
+     * {@link #sumsBetween}, laid out as {@code [bucket * categoryCount() + code]}.
+     * {@code counts}, same layout, receives the number of rows in each cell.
+     */
+    public long[] categorySumsBetween(long[] bounds, int[] counts) {
+        long[] result = new long[(bounds.length - 1) * categories.length];
+        int i = lowerBound(bounds[0]);
+        for (int b = 0; b + 1 < bounds.length; b++) {
+            int end = lowerBound(bounds[b + 1]);
+            int base = b * categories.length;
+            for (; i < end; i++) {
+                result[base + categoryCodes[i]] = Math.addExact(result[base + categoryCodes[i]], cents[i]);
+                counts[base + categoryCodes[i]]++;
+            }
+        }
+        return result;
+    }
+
+    /** Epoch day of the oldest expense; only valid when size() > 0. */
+    public long firstDay() {
+        return days[0];
+    }
+
+    /** Epoch day of the newest expense; only valid when size() > 0. */
+    public long lastDay() {
+        return days[days.length - 1];
+    }
+
+    /** A copy with expense {@code id} added, or replaced if present. */
+    public ExpenseLedger with(long id, long day, long amountCents, long categoryId) {
+        int existing = indexOf(id);
+        if (existing >= 0 && days[existing] == day && cents[existing] == amountCents
+                && categories[categoryCodes[existing]] == categoryId) {
+            return this;
+        }
+        ExpenseLedger base = existing >= 0 ? without(id) : this;
+        return base.insert(id, (int) day, amountCents, categoryId);
+    }
+
+    /** A copy without expense {@code id}; this ledger if it isn't there. */
+    public ExpenseLedger without(long id) {
+        int at = indexOf(id);
+        if (at < 0) {
+            return this;
+        }
+        return new ExpenseLedger(remove(ids, at), remove(days, at), remove(cents, at), remove(categoryCodes, at), categories);
+    }
+
+    private ExpenseLedger insert(long id, int day, long amountCents, long categoryId) {
+        int code = 0;
+        while (code < categories.length && categories[code] != categoryId) {
+            code++;
+        }
+        long[] categoryIds = categories;
+        if (code == categories.length) {
+            categoryIds = Arrays.copyOf(categories, code + 1);
+            categoryIds[code] = categoryId;
+        }
+        // After every row on an earlier day, or on the same day with a smaller id
+        int at = lowerBound(day);
+        while (at < ids.length && days[at] == day && ids[at] < id) {
+            at++;
+        }
+        return new ExpenseLedger(insert(ids, at, id), insert(days, at, day), insert(cents, at, amountCents),
+                insert(categoryCodes, at, code), categoryIds);
+    }
+
+    private int indexOf(long id) {
+        for (int i = 0; i < ids.length; i++) {
+            if (ids[i] == id) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    // First row dated on or after day
+    private int lowerBound(long day) {
+        int lo = 0;
+        int hi = days.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (days[mid] < day) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    // First row dated after day
+    private int upperBound(long day) {
+        return day == Long.MAX_VALUE ? days.length : lowerBound(day + 1);
+    }
+
+    private static long[] insert(long[] a, int at, long value) {
+        long[] r = new long[a.length + 1];
+        System.arraycopy(a, 0, r, 0, at);
+        r[at] = value;
+        System.arraycopy(a, at, r, at + 1, a.length - at);
+        return r;
+    }
+
+    private static int[] insert(int[] a, int at, int value) {
+        int[] r = new int[a.length + 1];
+        System.arraycopy(a, 0, r, 0, at);
+        r[at] = value;
+        System.arraycopy(a, at, r, at + 1, a.length - at);
+        return r;
+    }
+
+    private static long[] remove(long[] a, int at) {
+        long[] r = new long[a.length - 1];
+        System.arraycopy(a, 0, r, 0, at);
+        System.arraycopy(a, at + 1, r, at, a.length - at - 1);
+        return r;
+    }
+
+    private static int[] remove(int[] a, int at) {
+        int[] r = new int[a.length - 1];
+        System.arraycopy(a, 0, r, 0, at);
+        System.arraycopy(a, at + 1, r, at, a.length - at - 1);
+        return r;
+    }
+
+    /**
+     * Collects rows newest first, in descending (date, id) order as the
+     * loading query returns them, and builds the ledger. Not thread-safe.
+     */
+    public static final class Builder {
+
+        private long[] ids = new long[64];
+        private int[] days = new int[64];
+        private long[] cents = new long[64];
+        private int[] codes = new int[64];
+        private final Map<Long, Integer> dictionary = new HashMap<>();
+        private int size;
+
+        public Builder add(long id, long day, long amountCents, long categoryId) {
+            if (size == ids.length) {
+                int capacity = size * 2;
+                ids = Arrays.copyOf(ids, capacity);
+                days = Arrays.copyOf(days, capacity);
+                cents = Arrays.copyOf(cents, capacity);
+                codes = Arrays.copyOf(codes, capacity);
+            }
+            ids[size] = id;
+            days[size] = (int) day;
+            cents[size] = amountCents;
+            codes[size] = dictionary.computeIfAbsent(categoryId, k -> dictionary.size());
+            size++;
+            return this;
+        }
+
+        public ExpenseLedger build() {
+            long[] categoryIds = new long[dictionary.size()];
+            dictionary.forEach((categoryId, code) -> categoryIds[code] = categoryId);
+            long[] sortedIds = new long[size];
+            int[] sortedDays = new int[size];
+            long[] sortedCents = new long[size];
+            int[] sortedCodes = new int[size];
+            for (int i = 0, j = size - 1; i < size; i++, j--) {
+                sortedIds[i] = ids[j];
+                sortedDays[i] = days[j];
+                sortedCents[i] = cents[j];
+                sortedCodes[i] = codes[j];
+            }
+            return new ExpenseLedger(sortedIds, sortedDays, sortedCents, sortedCodes, categoryIds);
+        }
+    }
+}
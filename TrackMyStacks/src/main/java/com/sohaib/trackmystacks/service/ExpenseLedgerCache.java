@@ -0,0 +1,142 @@
+package com.sohaib.trackmystacks.service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.sohaib.trackmystacks.model.Expense;
+import com.sohaib.trackmystacks.model.Money;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Per-user {@link ExpenseLedger}s, built on first use with one JDBC query and
+ * kept until evicted.
+ *
+ * Memory is bounded by expense rows across all cached ledgers
+ * (trackmystacks.ledger.max-rows, about 30 bytes each); idle ledgers expire
+ * after trackmystacks.ledger.ttl. Either way the next read rebuilds them.
+ *
+ * ExpenseService reports single-expense changes, which are applied to a cached
+ * ledger after commit (a rollback leaves it alone). Applying is idempotent by
+ * expense id, so it doesn't matter whether a ledger being built concurrently
+ * already saw the change. Bulk changes (restores, rebuilds, user deletion)
+ * evict instead, the same way as {@link DashboardCache}.
+ */
+@Component
+public class ExpenseLedgerCache implements MeterBinder {
+
+    // Newest first, the order idx_expenses_user_date is stored in, so the database doesn't sort.
+    // Amounts arrive as whole cents (no BigDecimal per row); the epoch day is computed here,
+    // which keeps the query the same on H2 and PostgreSQL. Categories stay ids; see AnalyticsService.
+    private static final String LOAD_SQL = "SELECT id, expense_date, CAST(amount * 100 AS BIGINT), category_id "
+            + "FROM expenses WHERE user_id = ? ORDER BY expense_date DESC, id DESC";
+
+    private final Cache<Long, ExpenseLedger> cache;
+    private final JdbcTemplate jdbcTemplate;
+
+    public ExpenseLedgerCache(JdbcTemplate jdbcTemplate,
+            @Value("${trackmystacks.ledger.max-rows:5000000}") long maxRows,
+            @Value("${trackmystacks.ledger.ttl:30m}") Duration ttl) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxRows)
+                .weigher((Long userId, ExpenseLedger ledger) -> ledger.size() + 1)
+                .expireAfterAccess(ttl)
+                .recordStats()
+                .build();
+    }
+
+    public ExpenseLedger get(Long userId) {
+        return cache.get(userId, this::load);
+    }
+
+    /** Records that {@code expense} was created or changed. */
+    public void expenseSaved(Expense expense) {
+        Long userId = expense.getUser().getId();
+        long id = expense.getId();
+        long day = expense.getDate().toEpochDay();
+        long cents = Money.of(expense.getAmount()).cents();
+        long categoryId = expense.getCategory().getId();
+        afterCommit(() -> cache.asMap().computeIfPresent(userId, (k, ledger) -> ledger.with(id, day, cents, categoryId)));
+    }
+
+    /** Records that {@code expense} was deleted. */
+    public void expenseDeleted(Expense expense) {
+        Long userId = expense.getUser().getId();
+        long id = expense.getId();
+        afterCommit(() -> cache.asMap().computeIfPresent(userId, (k, ledger) -> ledger.without(id)));
+    }
+
+    /** Drops one user's ledger, now and after commit. */
+    public void evictUser(Long userId) {
+        if (userId == null) {
+            return;
+        }
+        cache.invalidate(userId);
+        afterCommit(() -> cache.invalidate(userId));
+    }
+
+    /** Drops every ledger, now and after commit. */
+    public void evictAll() {
+        cache.invalidateAll();
+        afterCommit(cache::invalidateAll);
+    }
+
+    /** The same counters as cache.gets / cache.evictions meters, tagged cache=expense-ledger. */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, "expense-ledger");
+    }
+
+    /** Size and hit/miss counters for the admin cache-stats endpoint. */
+    public Map<String, Object> getStats() {
+        CacheStats stats = cache.stats();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("ledgers", cache.estimatedSize());
+        result.put("rows", cache.policy().eviction().map(e -> e.weightedSize().orElse(0)).orElse(0L));
+        result.put("hits", stats.hitCount());
+        result.put("misses", stats.missCount());
+        result.put("hitRate", stats.hitRate());
+        result.put("evictions", stats.evictionCount());
+        result.put("averageLoadMillis", stats.averageLoadPenalty() / 1_000_000.0);
+        return result;
+    }
+
+    private ExpenseLedger load(Long userId) {
+        ExpenseLedger.Builder builder = new ExpenseLedger.Builder();
+        jdbcTemplate.query(LOAD_SQL, rs -> {
+            builder.add(rs.getLong(1),
+                    rs.getObject(2, LocalDate.class).toEpochDay(),
+                    rs.getLong(3),
+                    rs.getLong(4));
+        }, userId);
+        return builder.build();
+    }
+
+    // Outside a transaction the change is already visible, so apply it right away
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
@@ -0,0 +1,284 @@
+package com.sohaib.trackmystacks.service;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.NumericDocValuesField;
+import org.apache.lucene.document.StoredField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.SegmentInfos;
+import org.apache.lucene.index.StoredFields;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.BoostQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.PrefixQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.Sort;
+import org.apache.lucene.search.SortField;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopFieldDocs;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+
+import com.sohaib.trackmystacks.dto.ExpensePage;
+import com.sohaib.trackmystacks.dto.ExpenseSearchResult;
+import com.sohaib.trackmystacks.model.Money;
+
+/**
+ * Lucene index over every user's expenses: description and category are
+ * analysed for search, the rest of the feed item is stored, so hits are
+ * returned without touching the database. Each search is filtered to one
+ * user.
+ *
+ * Every word typed has to match, as a whole word or the start of one, in
+ * the description or the category. Whole words score higher than prefixes
+ * and descriptions higher than categories; equal scores come newest first.
+ *
+ * The index remembers whether it was closed cleanly with the current
+ * document layout. If not (a crash, an upgrade), {@link #openedClean()} is
+ * false and the caller should rebuild it from the database. A clean close
+ * also keeps how far the caller had caught up with the database
+ * ({@link #markSynced}), to resume from at the next start. Writes come from
+ * one thread (see {@link ExpenseSearchIndexer}); searches may run on any.
+ */
+public final class ExpenseSearchIndex implements Closeable {
+
+    /** Bump when the document layout changes; an index written with another layout is rebuilt. */
+    static final String LAYOUT_VERSION = "1";
+    /** Deepest hit a search can page to. */
+    public static final int MAX_HITS = 1000;
+    // Words beyond this are ignored rather than making the query ever more selective
+    private static final int MAX_TERMS = 8;
+
+    private static final String ID = "id";
+    private static final String USER = "user";
+    private static final String DESCRIPTION = "description";
+    private static final String CATEGORY = "category";
+    private static final String DATE = "date";
+    private static final String AMOUNT = "amount";
+    private static final String RECURRING = "recurring";
+
+    private static final String LAYOUT_KEY = "layout";
+    private static final String CLEAN_KEY = "clean";
+    private static final String SYNCED_TO_KEY = "syncedTo";
+    private static final String REINDEX_REQUEST_KEY = "reindexRequest";
+
+    private static final Sort RANKING = new Sort(SortField.FIELD_SCORE, new SortField(DATE, SortField.Type.LONG, true));
+
+    private final Directory directory;
+    private final Analyzer analyzer = new StandardAnalyzer();
+    private final IndexWriter writer;
+    private final SearcherManager searchers;
+    private final boolean openedClean;
+    private LocalDateTime syncedTo;
+    private long reindexRequest;
+
+    public static ExpenseSearchIndex open(Path path) throws IOException {
+        Files.createDirectories(path);
+        return new ExpenseSearchIndex(FSDirectory.open(path));
+    }
+
+    public ExpenseSearchIndex(Directory directory) throws IOException {
+        this.directory = directory;
+        Map<String, String> last = DirectoryReader.indexExists(directory)
+                ? SegmentInfos.readLatestCommit(directory).getUserData()
+                : Map.of();
+        this.openedClean = LAYOUT_VERSION.equals(last.get(LAYOUT_KEY)) && "true".equals(last.get(CLEAN_KEY));
+        if (openedClean && last.containsKey(SYNCED_TO_KEY)) {
+            this.syncedTo = LocalDateTime.parse(last.get(SYNCED_TO_KEY));
+            this.reindexRequest = Long.parseLong(last.get(REINDEX_REQUEST_KEY));
+        }
+
+        IndexWriterConfig config = new IndexWriterConfig(analyzer)
+                .setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND)
+                .setCommitOnClose(false);
+        this.writer = new IndexWriter(directory, config);
+        // Marked unclean until close(), so a crash in between shows up at the next start
+        writer.setLiveCommitData(commitData(false, null, 0).entrySet());
+        writer.commit();
+        this.searchers = new SearcherManager(writer, null);
+    }
+
+    /** False when the index may be missing changes and should be rebuilt. */
+    public boolean openedClean() {
+        return openedClean;
+    }
+
+    /** Time up to which the index had caught up with the database at its last clean close; null if unknown. */
+    public LocalDateTime syncedTo() {
+        return syncedTo;
+    }
+
+    /** Last search_reindex_requests id the index was rebuilt for, with {@link #syncedTo()}. */
+    public long reindexRequest() {
+        return reindexRequest;
+    }
+
+    /** Records how far the index has caught up with the database; saved by a clean {@link #close(boolean)}. */
+    public void markSynced(LocalDateTime syncedTo, long reindexRequest) {
+        this.syncedTo = syncedTo;
+        this.reindexRequest = reindexRequest;
+    }
+
+    /** Adds expense {@code id}, or replaces it if present. */
+    public void put(long id, long userId, LocalDate date, long amountCents, String category, String description,
+            boolean recurring) throws IOException {
+        Document doc = new Document();
+        doc.add(new StringField(ID, Long.toString(id), Field.Store.YES));
+        doc.add(new StringField(USER, Long.toString(userId), Field.Store.NO));
+        doc.add(new TextField(CATEGORY, category, Field.Store.YES));
+        if (description != null) {
+            doc.add(new TextField(DESCRIPTION, description, Field.Store.YES));
+        }
+        doc.add(new NumericDocValuesField(DATE, date.toEpochDay()));
+        doc.add(new StoredField(DATE, date.toEpochDay()));
+        doc.add(new StoredField(AMOUNT, amountCents));
+        doc.add(new StoredField(RECURRING, recurring ? 1 : 0));
+        writer.updateDocument(new Term(ID, Long.toString(id)), doc);
+    }
+
+    public void delete(long id) throws IOException {
+        writer.deleteDocuments(new Term(ID, Long.toString(id)));
+    }
+
+    public void deleteUser(long userId) throws IOException {
+        writer.deleteDocuments(new Term(USER, Long.toString(userId)));
+    }
+
+    public void deleteAll() throws IOException {
+        writer.deleteAll();
+    }
+
+    /** Makes the changes so far visible to searches. */
+    public void refresh() throws IOException {
+        searchers.maybeRefresh();
+    }
+
+    /** Writes the changes so far to disk; the index stays marked unclean. */
+    public void commit() throws IOException {
+        writer.commit();
+    }
+
+    /** Expenses in the index, including changes not yet visible to searches. */
+    public int size() {
+        return writer.getDocStats().numDocs;
+    }
+
+    /**
+     * One page (from 0) of {@code userId}'s expenses matching {@code text}, best first.
+     * The caller keeps {@code (page + 1) * size} within {@link #MAX_HITS}.
+     */
+    public ExpenseSearchResult search(long userId, String text, int page, int size) throws IOException {
+        List<String> terms = terms(text);
+        if (terms.isEmpty()) {
+            return new ExpenseSearchResult(text, List.of(), 0, page, size, false);
+        }
+        BooleanQuery.Builder builder = new BooleanQuery.Builder()
+                .add(new TermQuery(new Term(USER, Long.toString(userId))), BooleanClause.Occur.FILTER);
+        for (String term : terms) {
+            builder.add(anyField(term), BooleanClause.Occur.MUST);
+        }
+        Query query = builder.build();
+
+        int offset = page * size;
+        IndexSearcher searcher = searchers.acquire();
+        try {
+            TopFieldDocs top = searcher.search(query, offset + size, RANKING, true);
+            int total = searcher.count(query);
+            StoredFields stored = searcher.storedFields();
+            List<ExpensePage.Item> items = new ArrayList<>(size);
+            for (int i = offset; i < top.scoreDocs.length; i++) {
+                items.add(item(stored.document(top.scoreDocs[i].doc)));
+            }
+            boolean hasMore = total > offset + size && offset + size < MAX_HITS;
+            return new ExpenseSearchResult(text, items, total, page, size, hasMore);
+        } finally {
+            searchers.release(searcher);
+        }
+    }
+
+    /** Marks the index clean and closes it. Pass false to leave it for a rebuild at the next start. */
+    public void close(boolean clean) throws IOException {
+        try {
+            if (clean) {
+                writer.setLiveCommitData(commitData(true, syncedTo, reindexRequest).entrySet());
+                writer.commit();
+            }
+            searchers.close();
+            writer.close();
+        } finally {
+            directory.close();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        close(true);
+    }
+
+    // The word as a whole word or a prefix, in either field
+    private static Query anyField(String term) {
+        return new BooleanQuery.Builder()
+                .add(new BoostQuery(new TermQuery(new Term(DESCRIPTION, term)), 2f), BooleanClause.Occur.SHOULD)
+                .add(new BoostQuery(new TermQuery(new Term(CATEGORY, term)), 1.5f), BooleanClause.Occur.SHOULD)
+                .add(new PrefixQuery(new Term(DESCRIPTION, term)), BooleanClause.Occur.SHOULD)
+                .add(new PrefixQuery(new Term(CATEGORY, term)), BooleanClause.Occur.SHOULD)
+                .build();
+    }
+
+    // Lower-cased words, split the same way as the indexed text
+    private List<String> terms(String text) throws IOException {
+        List<String> terms = new ArrayList<>();
+        if (text == null || text.isBlank()) {
+            return terms;
+        }
+        try (TokenStream tokens = analyzer.tokenStream(DESCRIPTION, text)) {
+            CharTermAttribute term = tokens.addAttribute(CharTermAttribute.class);
+            tokens.reset();
+            while (terms.size() < MAX_TERMS && tokens.incrementToken()) {
+                terms.add(term.toString());
+            }
+            tokens.end();
+        }
+        return terms;
+    }
+
+    private static ExpensePage.Item item(Document doc) {
+        ExpensePage.Item item = new ExpensePage.Item();
+        item.setId(Long.valueOf(doc.get(ID)));
+        item.setAmount(Money.ofCents(doc.getField(AMOUNT).numericValue().longValue()).toBigDecimal());
+        item.setCategory(doc.get(CATEGORY));
+        item.setDescription(doc.get(DESCRIPTION));
+        item.setDate(LocalDate.ofEpochDay(doc.getField(DATE).numericValue().longValue()));
+        item.setRecurring(doc.getField(RECURRING).numericValue().intValue() == 1);
+        return item;
+    }
+
+    private static Map<String, String> commitData(boolean clean, LocalDateTime syncedTo, long reindexRequest) {
+        if (syncedTo == null) {
+            return Map.of(LAYOUT_KEY, LAYOUT_VERSION, CLEAN_KEY, Boolean.toString(clean));
+        }
+        return Map.of(LAYOUT_KEY, LAYOUT_VERSION, CLEAN_KEY, Boolean.toString(clean),
+                SYNCED_TO_KEY, syncedTo.toString(), REINDEX_REQUEST_KEY, Long.toString(reindexRequest));
+    }
+}
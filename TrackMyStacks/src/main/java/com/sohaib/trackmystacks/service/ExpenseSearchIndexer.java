@@ -0,0 +1,368 @@
+package com.sohaib.trackmystacks.service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.sohaib.trackmystacks.dto.ExpenseSearchResult;
+import com.sohaib.trackmystacks.model.DeletedRow;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Keeps the {@link ExpenseSearchIndex} under trackmystacks.search.dir in step
+ * with the expenses table.
+ *
+ * Changes are reported after commit (a rollback reports nothing) and applied
+ * on one background thread, so requests never wait for Lucene. Single
+ * expense changes only queue the id: the indexer re-reads those rows in one
+ * query and indexes or deletes them, which makes the outcome the committed
+ * state whatever order reports arrive in. Searches see a change a few
+ * milliseconds after its commit.
+ *
+ * Every app instance has its own index, and the reports only cover changes
+ * made in this one. So every trackmystacks.search.sync-interval the indexer
+ * also catches up with the database: expenses whose updated_at is newer than
+ * the last pass are re-read, and deleted_rows tombstones of expenses and
+ * users are deleted. Each pass looks back trackmystacks.search.sync-lag
+ * further, for transactions that committed after the last pass but stamped
+ * their rows before it, and for clocks that differ between hosts. Restores
+ * and seeding replace rows without tombstones, so {@link #reindexAll()}
+ * adds a search_reindex_requests row and every instance rebuilds its index
+ * when it sees one. How far the index got is kept with it, so a restart
+ * resumes from there.
+ *
+ * If the index wasn't closed cleanly last time, or its layout changed, it is
+ * rebuilt in the background at startup; searches answer from what is already
+ * there meanwhile.
+ */
+@Component
+public class ExpenseSearchIndexer implements MeterBinder {
+
+    private static final Logger log = LoggerFactory.getLogger(ExpenseSearchIndexer.class);
+
+    private static final String SELECT = "SELECT e.id, e.user_id, e.expense_date, CAST(e.amount * 100 AS BIGINT), "
+            + "c.name, e.description, e.recurring FROM expenses e JOIN categories c ON c.id = e.category_id";
+    private static final int IDS_PER_QUERY = 500;
+    // A pass with more changed rows than this rebuilds instead of queueing every id
+    private static final int MAX_SYNC_CHANGES = 100_000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ExpenseSearchIndex index;
+    private final Duration syncLag;
+    private final ExecutorService writer;
+    private final Set<Long> pending = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean rebuildQueued = new AtomicBoolean();
+    private final AtomicBoolean syncQueued = new AtomicBoolean();
+    private final AtomicLong rebuilds = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+    private volatile long lastRebuildMillis = -1;
+
+    // Catch-up state, only used on the writer thread: changes up to syncedTo are in the index (null until
+    // the startup rebuild has run), and rows seen within the look-back with the updated_at / tombstone seen
+    private volatile LocalDateTime syncedTo;
+    private long reindexRequest;
+    private final Map<Long, LocalDateTime> recentChanges = new HashMap<>();
+    private final Map<Long, LocalDateTime> recentTombstones = new HashMap<>();
+
+    public ExpenseSearchIndexer(JdbcTemplate jdbcTemplate,
+            @Value("${trackmystacks.search.dir:./data/search}") String dir,
+            @Value("${trackmystacks.search.sync-lag:1m}") Duration syncLag) throws IOException {
+        this.jdbcTemplate = jdbcTemplate;
+        this.index = ExpenseSearchIndex.open(Path.of(dir));
+        this.syncLag = syncLag;
+        this.writer = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "expense-search-indexer");
+            t.setDaemon(true);
+            return t;
+        });
+        if (index.openedClean()) {
+            syncedTo = index.syncedTo();
+            reindexRequest = index.reindexRequest();
+        }
+    }
+
+    // Started, not ready: --seed-data queues its own rebuild, which then follows this one
+    @EventListener(ApplicationStartedEvent.class)
+    public void catchUp() {
+        if (syncedTo == null) {
+            log.info("Expense search index is missing or out of date; rebuilding it in the background.");
+            queueRebuild();
+        } else {
+            log.info("Expense search index catching up with changes since {}.", syncedTo.minus(syncLag));
+            sync();
+        }
+    }
+
+    /** One page (from 0) of the user's expenses matching {@code text}; see {@link ExpenseSearchIndex#search}. */
+    public ExpenseSearchResult search(Long userId, String text, int page, int size) {
+        try {
+            return index.search(userId, text, page, size);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /** Records that expense {@code id} was created, changed or deleted. */
+    public void expenseChanged(Long id) {
+        afterCommit(() -> {
+            if (pending.add(id)) {
+                writer.execute(() -> run(this::applyPending));
+            }
+        });
+    }
+
+    /** Re-reads all of one user's expenses, e.g. after a restore replaced them. */
+    public void reindexUser(Long userId) {
+        afterCommit(() -> writer.execute(() -> run(() -> {
+            index.deleteUser(userId);
+            jdbcTemplate.query(SELECT + " WHERE e.user_id = ?", this::put, userId);
+            index.refresh();
+        })));
+    }
+
+    /** Drops a deleted user's expenses from the index. */
+    public void removeUser(Long userId) {
+        afterCommit(() -> writer.execute(() -> run(() -> {
+            index.deleteUser(userId);
+            index.refresh();
+        })));
+    }
+
+    /**
+     * Rebuilds the whole index from the expenses table, e.g. after a full restore or seeding.
+     * Other instances rebuild theirs at their next catch-up; all only once the caller commits.
+     */
+    public void reindexAll() {
+        jdbcTemplate.update("INSERT INTO search_reindex_requests (requested_at) VALUES (?)", LocalDateTime.now());
+        afterCommit(this::queueRebuild);
+    }
+
+    /** Queues a catch-up with changes other instances made, unless one is already waiting. */
+    @Scheduled(fixedDelayString = "${trackmystacks.search.sync-interval:PT5S}",
+            initialDelayString = "${trackmystacks.search.sync-interval:PT5S}")
+    public void sync() {
+        if (!writer.isShutdown() && syncQueued.compareAndSet(false, true)) {
+            writer.execute(() -> run(this::syncWithDatabase));
+        }
+    }
+
+    /** Gauges trackmystacks.search.documents and trackmystacks.search.pending. */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("trackmystacks.search.documents", index, ExpenseSearchIndex::size)
+                .description("Expenses in the full-text search index")
+                .register(registry);
+        Gauge.builder("trackmystacks.search.pending", pending, Set::size)
+                .description("Changed expenses waiting to be indexed")
+                .register(registry);
+    }
+
+    /** Size, queue, catch-up and rebuild counters for the admin endpoint. */
+    public Map<String, Object> getStats() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("documents", index.size());
+        result.put("pendingChanges", pending.size());
+        result.put("syncedTo", syncedTo);
+        result.put("rebuildQueued", rebuildQueued.get());
+        result.put("rebuilds", rebuilds.get());
+        result.put("lastRebuildMillis", lastRebuildMillis);
+        result.put("failures", failures.get());
+        return result;
+    }
+
+    // Waits for queued work so the index can be marked clean; a failed update leaves it for a rebuild
+    @PreDestroy
+    public void close() throws IOException, InterruptedException {
+        writer.shutdown();
+        if (!writer.awaitTermination(30, TimeUnit.SECONDS)) {
+            log.warn("Expense search index still busy at shutdown; it will be rebuilt at the next start.");
+            return;
+        }
+        index.markSynced(syncedTo, reindexRequest);
+        index.close(failures.get() == 0 && syncedTo != null);
+    }
+
+    private void queueRebuild() {
+        // A rebuild that hasn't started yet will see these changes too
+        if (rebuildQueued.compareAndSet(false, true)) {
+            writer.execute(() -> run(this::rebuild));
+        }
+    }
+
+    private void applyPending() throws IOException {
+        if (pending.isEmpty()) {
+            return;
+        }
+        // Removed before reading, so a change reported from here on queues another pass
+        List<Long> ids = new ArrayList<>(pending);
+        pending.removeAll(ids);
+        for (int from = 0; from < ids.size(); from += IDS_PER_QUERY) {
+            List<Long> chunk = ids.subList(from, Math.min(from + IDS_PER_QUERY, ids.size()));
+            Set<Long> gone = new HashSet<>(chunk);
+            String placeholders = String.join(", ", Collections.nCopies(chunk.size(), "?"));
+            jdbcTemplate.query(SELECT + " WHERE e.id IN (" + placeholders + ")", rs -> {
+                gone.remove(rs.getLong(1));
+                put(rs);
+            }, chunk.toArray());
+            for (Long id : gone) {
+                index.delete(id);
+            }
+        }
+        index.refresh();
+    }
+
+    // Rows changed or deleted since the last pass (this instance's own changes included, which re-reads
+    // them once more), or a rebuild if another instance asked for one
+    private void syncWithDatabase() throws IOException {
+        syncQueued.set(false);
+        if (syncedTo == null) {
+            return;   // the startup rebuild is still to come
+        }
+        LocalDateTime started = LocalDateTime.now();
+        if (latestReindexRequest() > reindexRequest) {
+            rebuild();
+            return;
+        }
+        LocalDateTime since = syncedTo.minus(syncLag);
+        Integer changes = jdbcTemplate.queryForObject("SELECT (SELECT COUNT(*) FROM expenses WHERE updated_at > ?) "
+                + "+ (SELECT COUNT(*) FROM deleted_rows WHERE deleted_at > ?)", Integer.class, since, since);
+        if (changes != null && changes > MAX_SYNC_CHANGES) {
+            log.info("Expense search index: {} rows changed since {}; rebuilding it instead.", changes, since);
+            rebuild();
+            return;
+        }
+
+        jdbcTemplate.query("SELECT id, updated_at FROM expenses WHERE updated_at > ?", rs -> {
+            LocalDateTime updatedAt = rs.getObject(2, LocalDateTime.class);
+            if (!updatedAt.equals(recentChanges.put(rs.getLong(1), updatedAt))) {
+                pending.add(rs.getLong(1));
+            }
+        }, since);
+        jdbcTemplate.query("SELECT id, entity_type, entity_id, deleted_at FROM deleted_rows "
+                + "WHERE deleted_at > ? AND entity_type IN (?, ?)", rs -> {
+            if (recentTombstones.put(rs.getLong(1), rs.getObject(4, LocalDateTime.class)) != null) {
+                return;
+            }
+            if (DeletedRow.USER.equals(rs.getString(2))) {
+                deleteUser(rs.getLong(3));
+            } else {
+                pending.add(rs.getLong(3));
+            }
+        }, since, DeletedRow.EXPENSE, DeletedRow.USER);
+        // Older than the next pass looks back, so they can't come up again
+        LocalDateTime nextSince = started.minus(syncLag);
+        recentChanges.values().removeIf(at -> !at.isAfter(nextSince));
+        recentTombstones.values().removeIf(at -> !at.isAfter(nextSince));
+
+        applyPending();
+        index.refresh();
+        syncedTo = started;
+    }
+
+    // User by user, so the driver never holds the whole table in memory
+    private void rebuild() throws IOException {
+        rebuildQueued.set(false);
+        long started = System.currentTimeMillis();
+        LocalDateTime startedAt = LocalDateTime.now();
+        long request = latestReindexRequest();
+        index.deleteAll();
+        for (Long userId : jdbcTemplate.queryForList("SELECT id FROM users", Long.class)) {
+            jdbcTemplate.query(SELECT + " WHERE e.user_id = ?", this::put, userId);
+        }
+        index.commit();
+        index.refresh();
+        // Changes committed while it ran are caught up from here
+        syncedTo = startedAt;
+        reindexRequest = request;
+        recentChanges.clear();
+        recentTombstones.clear();
+        rebuilds.incrementAndGet();
+        lastRebuildMillis = System.currentTimeMillis() - started;
+        log.info("Expense search index rebuilt: {} expenses in {} ms.", index.size(), lastRebuildMillis);
+    }
+
+    private long latestReindexRequest() {
+        Long latest = jdbcTemplate.queryForObject("SELECT MAX(id) FROM search_reindex_requests", Long.class);
+        return latest == null ? 0 : latest;
+    }
+
+    private void put(ResultSet rs) throws SQLException {
+        try {
+            index.put(rs.getLong(1), rs.getLong(2), rs.getObject(3, LocalDate.class), rs.getLong(4),
+                    rs.getString(5), rs.getString(6), rs.getBoolean(7));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void deleteUser(long userId) {
+        try {
+            index.deleteUser(userId);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Background work: a failure is reported and counted, and the index is rebuilt at the next start
+    private void run(IndexTask task) {
+        try {
+            task.run();
+        } catch (IOException | RuntimeException e) {
+            failures.incrementAndGet();
+            log.error("Expense search index update failed", e);
+        }
+    }
+
+    @FunctionalInterface
+    private interface IndexTask {
+        void run() throws IOException;
+    }
+
+    // Outside a transaction the change is already visible, so apply it right away
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
@@ -1,76 +1,224 @@
 package com.sohaib.trackmystacks.service;
 
 import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import com.sohaib.trackmystacks.config.MetricsConfig;
+import com.sohaib.trackmystacks.dto.ExpensePage;
+import com.sohaib.trackmystacks.dto.ExpenseSearchResult;
+import com.sohaib.trackmystacks.model.Category;
 import com.sohaib.trackmystacks.model.Expense;
+import com.sohaib.trackmystacks.model.Money;
 import com.sohaib.trackmystacks.model.User;
+import com.sohaib.trackmystacks.repository.CategoryRepository;
 import com.sohaib.trackmystacks.repository.ExpenseRepository;
 
+import io.micrometer.core.annotation.Timed;
+
 @Service
+@Timed(MetricsConfig.SERVICE_TIMER)
 public class ExpenseService {
+
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 200;
+    // Upper date bound for the first feed page (see ExpenseRepository.findFirstPageByUser)
+    private static final LocalDate FEED_START = LocalDate.of(9999, 12, 31);
     
     @Autowired
     private ExpenseRepository expenseRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private MonthlySummaryService monthlySummaryService;
+
+    @Autowired
+    private DashboardCache dashboardCache;
+
+    @Autowired
+    private DeletionLog deletionLog;
+
+    @Autowired
+    private ExpenseLedgerCache ledgerCache;
+
+    @Autowired
+    private ExpenseSearchIndexer searchIndexer;
     
+    @Transactional
     public Expense createExpense(User user, BigDecimal amount, String category, String description, LocalDate date, boolean recurring) {
-        Expense expense = new Expense(user, amount, category, description, date, recurring);
-        return expenseRepository.save(expense);
+        amount = toCents(amount);
+        Expense expense = new Expense(user, amount, categoryNamed(category), description, date, recurring);
+        expense = expenseRepository.save(expense);
+        monthlySummaryService.recordExpense(user, date, amount);
+        ledgerCache.expenseSaved(expense);
+        searchIndexer.expenseChanged(expense.getId());
+        dashboardCache.evictUser(user.getId());
+        return expense;
     }
     
     public List<Expense> getAllExpensesByUser(User user) {
         return expenseRepository.findByUserOrderByDateDesc(user);
     }
     
-    public List<Expense> getExpensesByUserAndDateRange(User user, LocalDate startDate, LocalDate endDate) {
-        return expenseRepository.findByUserAndDateBetweenOrderByDateDesc(user, startDate, endDate);
+    /**
+     * Returns one page of the user's expenses, newest first.
+     * {@code cursor} is the {@code nextCursor} of the previous page (null for the first page).
+     * One extra row is fetched to tell whether another page exists without a COUNT query.
+     */
+    public ExpensePage getExpensePage(User user, String cursor, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        Pageable limit = PageRequest.of(0, pageSize + 1);
+        Cursor after = Cursor.parse(cursor);
+        List<Expense> rows = after == null
+                ? expenseRepository.findFirstPageByUser(user, FEED_START, limit)
+                : expenseRepository.findPageByUserAfter(user, after.date(), after.id(), limit);
+        return toPage(rows, pageSize);
+    }
+
+    /**
+     * The same feed limited to one category, read through idx_expenses_category_user_date.
+     * Paged like {@link #getExpensePage}; an unknown category id is an IllegalArgumentException.
+     */
+    public ExpensePage getCategoryExpensePage(User user, Long categoryId, String cursor, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        Pageable limit = PageRequest.of(0, pageSize + 1);
+        Category category = categoryRepository.findById(categoryId)
+                .orElseThrow(() -> new IllegalArgumentException("Unknown category: " + categoryId));
+        Cursor after = Cursor.parse(cursor);
+        List<Expense> rows = after == null
+                ? expenseRepository.findFirstPageByUserAndCategory(user, category, FEED_START, limit)
+                : expenseRepository.findPageByUserAndCategoryAfter(user, category, after.date(), after.id(), limit);
+        return toPage(rows, pageSize);
+    }
+
+    // rows holds up to pageSize + 1 expenses; the extra one only says there is another page
+    private static ExpensePage toPage(List<Expense> rows, int pageSize) {
+        boolean hasMore = rows.size() > pageSize;
+        if (hasMore) {
+            rows = rows.subList(0, pageSize);
+        }
+
+        List<ExpensePage.Item> items = rows.stream().map(e -> {
+            ExpensePage.Item item = new ExpensePage.Item();
+            item.setId(e.getId());
+            item.setAmount(e.getAmount());
+            item.setCategory(e.getCategory().getName());
+            item.setDescription(e.getDescription());
+            item.setDate(e.getDate());
+            item.setRecurring(e.isRecurring());
+            return item;
+        }).collect(Collectors.toList());
+
+        String nextCursor = null;
+        if (hasMore) {
+            Expense last = rows.get(rows.size() - 1);
+            nextCursor = last.getDate() + "_" + last.getId();
+        }
+        return new ExpensePage(items, nextCursor, hasMore);
+    }
+
+    // "date_id" of the last expense on the previous page
+    private record Cursor(LocalDate date, Long id) {
+
+        static Cursor parse(String cursor) {
+            if (cursor == null || cursor.isBlank()) {
+                return null;
+            }
+            int sep = cursor.lastIndexOf('_');
+            if (sep <= 0) {
+                throw new IllegalArgumentException("Invalid cursor: " + cursor);
+            }
+            try {
+                return new Cursor(LocalDate.parse(cursor.substring(0, sep)), Long.valueOf(cursor.substring(sep + 1)));
+            } catch (DateTimeParseException | NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid cursor: " + cursor);
+            }
+        }
     }
     
-    public List<Expense> getExpensesByUserAndCategory(User user, String category) {
-        return expenseRepository.findByUserAndCategoryOrderByDateDesc(user, category);
+    /**
+     * One page (from 0) of the user's expenses whose description or category matches
+     * {@code query}, best match first. Answered from the full-text index (see
+     * ExpenseSearchIndexer), never with a LIKE scan; paging stops at
+     * {@link ExpenseSearchIndex#MAX_HITS} hits.
+     */
+    public ExpenseSearchResult searchExpenses(User user, String query, int page, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        if (page < 0 || (long) (page + 1) * pageSize > ExpenseSearchIndex.MAX_HITS) {
+            throw new IllegalArgumentException("Page out of range: " + page);
+        }
+        return searchIndexer.search(user.getId(), query, page, pageSize);
     }
     
+    // Totals come from the user's in-memory ledger (see ExpenseLedgerCache), not a SUM query
     public BigDecimal getTotalByUser(User user) {
-        BigDecimal total = expenseRepository.getTotalByUser(user);
-        return total != null ? total : BigDecimal.ZERO;
+        return ledgerCache.get(user.getId()).total().toBigDecimal();
     }
     
     public BigDecimal getTotalByUserAndDateRange(User user, LocalDate startDate, LocalDate endDate) {
-        BigDecimal total = expenseRepository.getTotalByUserAndDateRange(user, startDate, endDate);
-        return total != null ? total : BigDecimal.ZERO;
+        return ledgerCache.get(user.getId()).sum(startDate.toEpochDay(), endDate.toEpochDay()).toBigDecimal();
     }
     
     public Optional<Expense> getExpenseById(Long id) {
         return expenseRepository.findById(id);
     }
     
+    @Transactional
     public void deleteExpense(Long id) {
-        expenseRepository.deleteById(id);
+        expenseRepository.findById(id).ifPresent(expense -> {
+            monthlySummaryService.recordExpense(expense.getUser(), expense.getDate(), expense.getAmount().negate());
+            expenseRepository.delete(expense);
+            deletionLog.recordExpense(expense);
+            ledgerCache.expenseDeleted(expense);
+            searchIndexer.expenseChanged(expense.getId());
+            dashboardCache.evictUser(expense.getUser().getId());
+        });
     }
     
+    @Transactional
     public Expense updateExpense(Long id, BigDecimal amount, String category, String description, LocalDate date, boolean recurring) {
         Expense expense = expenseRepository.findById(id)
             .orElseThrow(() -> new RuntimeException("Expense not found"));
+        amount = toCents(amount);
+        Category newCategory = categoryNamed(category);
+        
+        // Move the old amount out of its month and the new amount into (possibly another) month
+        monthlySummaryService.recordExpense(expense.getUser(), expense.getDate(), expense.getAmount().negate());
+        monthlySummaryService.recordExpense(expense.getUser(), date, amount);
         
         expense.setAmount(amount);
-        expense.setCategory(category);
+        expense.setCategory(newCategory);
         expense.setDescription(description);
         expense.setDate(date);
         expense.setRecurring(recurring);
         
+        ledgerCache.expenseSaved(expense);
+        searchIndexer.expenseChanged(expense.getId());
+        dashboardCache.evictUser(expense.getUser().getId());
         return expenseRepository.save(expense);
     }
 
-    public void deleteAllExpensesByUser(User user) {
-        expenseRepository.deleteByUser(user);
+    // Through the natural-id cache, so the form's category name costs no query once seen
+    private Category categoryNamed(String name) {
+        return categoryRepository.findByName(name)
+                .orElseThrow(() -> new IllegalArgumentException("Unknown category: " + name));
     }
 
-    public Expense saveExpense(Expense expense) {
-        return expenseRepository.save(expense);
+    // Rounds to whole cents once, before the amount reaches the entity, the monthly summary and
+    // the ledger (whose Money.of refuses a third decimal), so all three hold the same value
+    private static BigDecimal toCents(BigDecimal amount) {
+        return amount == null ? null : amount.setScale(Money.SCALE, RoundingMode.HALF_UP);
     }
 }
\ No newline at end of file
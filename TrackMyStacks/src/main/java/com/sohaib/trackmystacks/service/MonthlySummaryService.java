@@ -0,0 +1,221 @@
+package com.sohaib.trackmystacks.service;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.sohaib.trackmystacks.dto.MonthTotal;
+import com.sohaib.trackmystacks.model.MonthlySummary;
+import com.sohaib.trackmystacks.model.User;
+import com.sohaib.trackmystacks.repository.ExpenseRepository;
+import com.sohaib.trackmystacks.repository.MonthlySummaryRepository;
+import com.sohaib.trackmystacks.repository.PaycheckRepository;
+import com.sohaib.trackmystacks.repository.UserRepository;
+
+/**
+ * Maintains the per-user, per-month income/expense rollup (monthly_summaries).
+ *
+ * Writes    – ExpenseService and PaycheckService call recordExpense / recordIncome
+ *             with the signed change inside their own transaction, so the rollup
+ *             commits (or rolls back) together with the row that caused it.
+ *             The first write of a month inserts its row; when two of those race,
+ *             the loser's insert hits the unique key and it adds to the winner's
+ *             row instead of failing the caller's save.
+ * Rebuild   – recomputes every row from expenses and paychecks with GROUP BY
+ *             queries. Used after full restores and to backfill old databases.
+ *             Also drops the affected dashboards and expense ledgers.
+ * Verify    – compares stored rows with a fresh recomputation and reports drift.
+ */
+@Service
+public class MonthlySummaryService {
+
+    private static final String INSERT_MONTH = "INSERT INTO monthly_summaries "
+            + "(user_id, summary_month, income_total, expense_total) VALUES (?, ?, ?, ?)";
+    private static final String UNIQUE_VIOLATION = "23505";
+
+    @Autowired
+    private MonthlySummaryRepository summaryRepository;
+
+    @Autowired
+    private ExpenseRepository expenseRepository;
+
+    @Autowired
+    private PaycheckRepository paycheckRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DashboardCache dashboardCache;
+
+    @Autowired
+    private ExpenseLedgerCache ledgerCache;
+
+    // -------------------------------------------------------------------------
+    // Incremental maintenance
+    // -------------------------------------------------------------------------
+
+    /** Adds {@code delta} (negative to subtract) to the expense total of the month containing {@code date}. */
+    @Transactional
+    public void recordExpense(User user, LocalDate date, BigDecimal delta) {
+        if (delta == null || delta.signum() == 0) {
+            return;
+        }
+        LocalDate month = date.withDayOfMonth(1);
+        if (summaryRepository.addToExpenses(user, month, delta) == 0
+                && !insertMonth(user, month, BigDecimal.ZERO, delta)) {
+            summaryRepository.addToExpenses(user, month, delta);
+        }
+    }
+
+    /** Adds {@code delta} (negative to subtract) to the income total of the month containing {@code date}. */
+    @Transactional
+    public void recordIncome(User user, LocalDate date, BigDecimal delta) {
+        if (delta == null || delta.signum() == 0) {
+            return;
+        }
+        LocalDate month = date.withDayOfMonth(1);
+        if (summaryRepository.addToIncome(user, month, delta) == 0
+                && !insertMonth(user, month, delta, BigDecimal.ZERO)) {
+            summaryRepository.addToIncome(user, month, delta);
+        }
+    }
+
+    /**
+     * Inserts a month row; false if a concurrent writer inserted it first.
+     * Runs in a savepoint on the caller's connection so the duplicate-key error
+     * (which would otherwise abort the whole transaction on PostgreSQL) only
+     * undoes this insert.
+     */
+    private boolean insertMonth(User user, LocalDate month, BigDecimal income, BigDecimal expenses) {
+        return jdbcTemplate.execute((ConnectionCallback<Boolean>) connection -> {
+            Savepoint savepoint = connection.setSavepoint();
+            try (PreparedStatement insert = connection.prepareStatement(INSERT_MONTH)) {
+                insert.setLong(1, user.getId());
+                insert.setDate(2, Date.valueOf(month));
+                insert.setBigDecimal(3, income);
+                insert.setBigDecimal(4, expenses);
+                insert.executeUpdate();
+            } catch (SQLException e) {
+                if (!UNIQUE_VIOLATION.equals(e.getSQLState())) {
+                    throw e;
+                }
+                connection.rollback(savepoint);
+                return false;
+            }
+            connection.releaseSavepoint(savepoint);
+            return true;
+        });
+    }
+
+    /** Removes the user's rollup rows so the user itself can be deleted. */
+    @Transactional
+    public void deleteAllForUser(User user) {
+        summaryRepository.deleteAllByUser(user);
+    }
+
+    @Transactional(readOnly = true)
+    public List<MonthlySummary> getSummaries(User user, LocalDate from, LocalDate to) {
+        return summaryRepository.findByUserAndMonthBetween(user, from, to);
+    }
+
+    @Transactional(readOnly = true)
+    public boolean isEmpty() {
+        return summaryRepository.count() == 0;
+    }
+
+    // -------------------------------------------------------------------------
+    // Rebuild / verify
+    // -------------------------------------------------------------------------
+
+    /** Recomputes one user's rollup from source rows. Returns the number of months written. */
+    @Transactional
+    public int rebuildForUser(User user) {
+        summaryRepository.deleteAllByUser(user);
+        Map<LocalDate, MonthlySummary> computed = computeFromSource(user);
+        summaryRepository.saveAll(computed.values());
+        dashboardCache.evictUser(user.getId());
+        ledgerCache.evictUser(user.getId());
+        return computed.size();
+    }
+
+    /** Recomputes the rollup for every user. Returns the number of months written. */
+    @Transactional
+    public int rebuildAll() {
+        summaryRepository.deleteAllInBatch();
+        int rows = 0;
+        for (User user : userRepository.findAll()) {
+            Map<LocalDate, MonthlySummary> computed = computeFromSource(user);
+            summaryRepository.saveAll(computed.values());
+            rows += computed.size();
+        }
+        dashboardCache.evictAll();
+        ledgerCache.evictAll();
+        return rows;
+    }
+
+    /**
+     * Compares stored rollup rows against a fresh recomputation.
+     * Returns one human-readable line per drifted (user, month); empty means consistent.
+     */
+    @Transactional(readOnly = true)
+    public List<String> verify() {
+        List<String> mismatches = new ArrayList<>();
+        for (User user : userRepository.findAll()) {
+            Map<LocalDate, MonthlySummary> computed = computeFromSource(user);
+            Map<LocalDate, MonthlySummary> stored = new TreeMap<>();
+            for (MonthlySummary s : summaryRepository.findByUserOrderByMonth(user)) {
+                stored.put(s.getMonth(), s);
+            }
+
+            Set<LocalDate> months = new TreeSet<>(computed.keySet());
+            months.addAll(stored.keySet());
+
+            for (LocalDate month : months) {
+                MonthlySummary want = computed.get(month);
+                MonthlySummary have = stored.get(month);
+                BigDecimal wantIncome   = want != null ? want.getIncome()   : BigDecimal.ZERO;
+                BigDecimal wantExpenses = want != null ? want.getExpenses() : BigDecimal.ZERO;
+                BigDecimal haveIncome   = have != null ? have.getIncome()   : BigDecimal.ZERO;
+                BigDecimal haveExpenses = have != null ? have.getExpenses() : BigDecimal.ZERO;
+                if (wantIncome.compareTo(haveIncome) != 0 || wantExpenses.compareTo(haveExpenses) != 0) {
+                    mismatches.add(user.getUsername() + " " + month
+                            + ": stored income=" + haveIncome + " expenses=" + haveExpenses
+                            + ", actual income=" + wantIncome + " expenses=" + wantExpenses);
+                }
+            }
+        }
+        return mismatches;
+    }
+
+    private Map<LocalDate, MonthlySummary> computeFromSource(User user) {
+        Map<LocalDate, MonthlySummary> byMonth = new TreeMap<>();
+        for (MonthTotal t : expenseRepository.getMonthlyTotalsByUser(user)) {
+            byMonth.computeIfAbsent(t.getFirstOfMonth(),
+                    m -> new MonthlySummary(user, m, BigDecimal.ZERO, BigDecimal.ZERO)).setExpenses(t.getTotal());
+        }
+        for (MonthTotal t : paycheckRepository.getMonthlyTotalsByUser(user)) {
+            byMonth.computeIfAbsent(t.getFirstOfMonth(),
+                    m -> new MonthlySummary(user, m, BigDecimal.ZERO, BigDecimal.ZERO)).setIncome(t.getTotal());
+        }
+        return byMonth;
+    }
+}
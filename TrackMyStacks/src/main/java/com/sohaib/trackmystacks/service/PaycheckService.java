@@ -12,35 +12,55 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.sohaib.trackmystacks.config.MetricsConfig;
 import com.sohaib.trackmystacks.dto.MonthlyComparison;
-import com.sohaib.trackmystacks.model.Expense;
+import com.sohaib.trackmystacks.model.Money;
+import com.sohaib.trackmystacks.model.MonthlySummary;
 import com.sohaib.trackmystacks.model.Paycheck;
 import com.sohaib.trackmystacks.model.User;
-import com.sohaib.trackmystacks.repository.ExpenseRepository;
 import com.sohaib.trackmystacks.repository.PaycheckRepository;
 
+import io.micrometer.core.annotation.Timed;
+
 @Service
+@Timed(MetricsConfig.SERVICE_TIMER)
 public class PaycheckService {
 
     @Autowired
     private PaycheckRepository paycheckRepository;
 
     @Autowired
-    private ExpenseRepository expenseRepository;
+    private MonthlySummaryService monthlySummaryService;
+
+    @Autowired
+    private DashboardCache dashboardCache;
 
+    @Autowired
+    private DeletionLog deletionLog;
+
+    @Transactional
     public Paycheck addPaycheck(User user, BigDecimal amount, LocalDate month, String description) {
         // Normalise to the 1st of the month
         LocalDate firstOfMonth = month.withDayOfMonth(1);
         Paycheck p = new Paycheck(user, amount, firstOfMonth, description);
-        return paycheckRepository.save(p);
+        p = paycheckRepository.save(p);
+        monthlySummaryService.recordIncome(user, firstOfMonth, amount);
+        dashboardCache.evictUser(user.getId());
+        return p;
     }
 
     public List<Paycheck> getAllPaychecksByUser(User user) {
         return paycheckRepository.findByUserOrderByMonthDesc(user);
     }
 
+    @Transactional
     public void deletePaycheck(Long id) {
-        paycheckRepository.deleteById(id);
+        paycheckRepository.findById(id).ifPresent(p -> {
+            monthlySummaryService.recordIncome(p.getUser(), p.getMonth(), p.getAmount().negate());
+            paycheckRepository.delete(p);
+            deletionLog.recordPaycheck(p);
+            dashboardCache.evictUser(p.getUser().getId());
+        });
     }
 
     /**
@@ -53,23 +73,12 @@ public class PaycheckService {
         LocalDate from = today.minusMonths(months - 1).withDayOfMonth(1);
         LocalDate to   = today.withDayOfMonth(1);
 
-        // Aggregate paychecks by month
-        List<Paycheck> paychecks = paycheckRepository.findByUserAndMonthBetween(user, from, to);
-        Map<LocalDate, BigDecimal> incomeByMonth = new HashMap<>();
-        for (Paycheck p : paychecks) {
-            LocalDate key = p.getMonth().withDayOfMonth(1);
-            incomeByMonth.merge(key, p.getAmount(), BigDecimal::add);
-        }
-
-        // Aggregate expenses by month — use end-of-month so future-dated entries
-        // (e.g. recurring expenses pre-dated to the 28th) are included.
-        LocalDate expFrom = from;
-        LocalDate expTo   = today.withDayOfMonth(today.lengthOfMonth());
-        List<Expense> expenses = expenseRepository.findByUserAndDateBetweenOrderByDateDesc(user, expFrom, expTo);
-        Map<LocalDate, BigDecimal> expensesByMonth = new HashMap<>();
-        for (Expense e : expenses) {
-            LocalDate key = e.getDate().withDayOfMonth(1);
-            expensesByMonth.merge(key, e.getAmount(), BigDecimal::add);
+        // One pre-aggregated row per month (see MonthlySummaryService). Expenses in the
+        // current month are already included even if future-dated, e.g. recurring
+        // expenses pre-dated to the 28th, because rows cover the whole month.
+        Map<LocalDate, MonthlySummary> byMonth = new HashMap<>();
+        for (MonthlySummary s : monthlySummaryService.getSummaries(user, from, to)) {
+            byMonth.put(s.getMonth(), s);
         }
 
         // Build ordered list
@@ -77,9 +86,10 @@ public class PaycheckService {
         List<MonthlyComparison> result = new ArrayList<>();
         LocalDate cursor = from;
         while (!cursor.isAfter(to)) {
-            BigDecimal income   = incomeByMonth.getOrDefault(cursor, BigDecimal.ZERO);
-            BigDecimal expenses2 = expensesByMonth.getOrDefault(cursor, BigDecimal.ZERO);
-            result.add(new MonthlyComparison(cursor.format(fmt), income, expenses2));
+            MonthlySummary row = byMonth.get(cursor);
+            Money income   = row != null ? Money.of(row.getIncome())   : Money.ZERO;
+            Money expenses = row != null ? Money.of(row.getExpenses()) : Money.ZERO;
+            result.add(new MonthlyComparison(cursor.format(fmt), income, expenses));
             cursor = cursor.plusMonths(1);
         }
         return result;
@@ -0,0 +1,31 @@
+package com.sohaib.trackmystacks.service;
+
+import java.util.List;
+
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import com.sohaib.trackmystacks.model.User;
+
+/**
+ * The logged-in user as stored in the security context: Spring's own
+ * UserDetails plus the database id and admin flag, captured once at login
+ * so request handling never has to look the user up again by name
+ * (see config.CurrentUserArgumentResolver).
+ */
+public class UserPrincipal extends org.springframework.security.core.userdetails.User {
+
+    private static final long serialVersionUID = 1L;
+
+    private final Long id;
+    private final boolean admin;
+
+    public UserPrincipal(User user) {
+        super(user.getUsername(), user.getPassword(),
+              List.of(new SimpleGrantedAuthority(user.isAdmin() ? "ROLE_ADMIN" : "ROLE_USER")));
+        this.id = user.getId();
+        this.admin = user.isAdmin();
+    }
+
+    public Long getId() { return id; }
+    public boolean isAdmin() { return admin; }
+}
@@ -8,6 +8,7 @@ import java.util.Optional;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.sohaib.trackmystacks.model.User;
 import com.sohaib.trackmystacks.repository.UserRepository;
@@ -22,6 +23,21 @@ public class UserService {
     @Autowired
     private PasswordEncoder passwordEncoder;
     
+    @Autowired
+    private MonthlySummaryService monthlySummaryService;
+    
+    @Autowired
+    private DashboardCache dashboardCache;
+
+    @Autowired
+    private ExpenseLedgerCache ledgerCache;
+
+    @Autowired
+    private ExpenseSearchIndexer searchIndexer;
+    
+    @Autowired
+    private DeletionLog deletionLog;
+    
     public List<User> getAllUsers() {
         return userRepository.findAll();
     }
@@ -37,8 +53,17 @@ public class UserService {
         return userRepository.save(user);
     }
     
+    @Transactional
     public void deleteUser(Long id) {
-        userRepository.deleteById(id);
+        // Rollup rows reference the user, so they have to go first
+        userRepository.findById(id).ifPresent(user -> {
+            monthlySummaryService.deleteAllForUser(user);
+            userRepository.delete(user);
+            deletionLog.recordUser(user);
+        });
+        dashboardCache.evictUser(id);
+        ledgerCache.evictUser(id);
+        searchIndexer.removeUser(id);
     }
     
     public boolean usernameExists(String username) {
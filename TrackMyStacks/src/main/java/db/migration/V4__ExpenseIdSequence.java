@@ -0,0 +1,34 @@
+package db.migration;
+
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+/**
+ * Switches expense ids from IDENTITY to a pooled sequence so Hibernate can
+ * batch expense INSERTs (an IDENTITY id is only known after each row's own
+ * INSERT, which forces one round trip per row).
+ *
+ * Written in Java rather than SQL because the sequence has to start past
+ * the current MAX(id), and not every database accepts a sub-query there.
+ * The +100 headroom covers Hibernate's pooled optimizer, which hands out
+ * the 50 ids below each value it reads from the sequence.
+ */
+public class V4__ExpenseIdSequence extends BaseJavaMigration {
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        try (Statement st = context.getConnection().createStatement()) {
+            st.execute("CREATE SEQUENCE IF NOT EXISTS expenses_seq START WITH 1 INCREMENT BY 50");
+
+            long start;
+            try (ResultSet rs = st.executeQuery("SELECT COALESCE(MAX(id), 0) + 100 FROM expenses")) {
+                rs.next();
+                start = rs.getLong(1);
+            }
+            st.execute("ALTER SEQUENCE expenses_seq RESTART WITH " + start);
+        }
+    }
+}
@@ -0,0 +1,43 @@
+-- Baseline schema: the tables Hibernate's ddl-auto=update used to create.
+-- Existing databases already have them and are baselined at this version
+-- (spring.flyway.baseline-on-migrate), so this script only runs on fresh ones.
+
+CREATE TABLE IF NOT EXISTS users (
+    id          BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    username    VARCHAR(50)  NOT NULL,
+    email       VARCHAR(100) NOT NULL,
+    password    VARCHAR(255) NOT NULL,
+    is_admin    BOOLEAN,
+    created_at  TIMESTAMP(6),
+    CONSTRAINT uk_users_username UNIQUE (username),
+    CONSTRAINT uk_users_email    UNIQUE (email)
+);
+
+CREATE TABLE IF NOT EXISTS categories (
+    id          BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name        VARCHAR(50) NOT NULL,
+    created_at  TIMESTAMP(6),
+    CONSTRAINT uk_categories_name UNIQUE (name)
+);
+
+CREATE TABLE IF NOT EXISTS expenses (
+    id            BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    user_id       BIGINT        NOT NULL,
+    amount        NUMERIC(10,2) NOT NULL,
+    category      VARCHAR(50)   NOT NULL,
+    description   VARCHAR(255),
+    expense_date  DATE          NOT NULL,
+    recurring     BOOLEAN       NOT NULL,
+    created_at    TIMESTAMP(6),
+    CONSTRAINT fk_expenses_user FOREIGN KEY (user_id) REFERENCES users (id)
+);
+
+CREATE TABLE IF NOT EXISTS paychecks (
+    id              BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    user_id         BIGINT        NOT NULL,
+    amount          NUMERIC(12,2) NOT NULL,
+    paycheck_month  DATE          NOT NULL,
+    description     VARCHAR(255),
+    created_at      TIMESTAMP(6),
+    CONSTRAINT fk_paychecks_user FOREIGN KEY (user_id) REFERENCES users (id)
+);
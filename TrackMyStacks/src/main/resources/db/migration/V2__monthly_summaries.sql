@@ -0,0 +1,12 @@
+-- Per-user, per-month income/expense rollup (see MonthlySummaryService).
+-- IF NOT EXISTS: databases that ran under ddl-auto=update may already have it.
+
+CREATE TABLE IF NOT EXISTS monthly_summaries (
+    id             BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    user_id        BIGINT        NOT NULL,
+    summary_month  DATE          NOT NULL,
+    income_total   NUMERIC(14,2) NOT NULL,
+    expense_total  NUMERIC(14,2) NOT NULL,
+    CONSTRAINT uk_monthly_summaries_user_month UNIQUE (user_id, summary_month),
+    CONSTRAINT fk_monthly_summaries_user FOREIGN KEY (user_id) REFERENCES users (id)
+);
@@ -0,0 +1,11 @@
+-- Composite indexes for the per-user access paths.
+--
+-- expenses: every ExpenseRepository query filters on user_id and filters or
+-- sorts on expense_date; id is the keyset tie-breaker of the dashboard feed.
+-- Trailing amount lets the SUM queries be answered from the index alone.
+-- Columns are DESC to match the newest-first ordering: H2 cannot walk an
+-- index backwards, so an ASC index would still need a sort.
+CREATE INDEX IF NOT EXISTS idx_expenses_user_date ON expenses (user_id, expense_date DESC, id DESC, amount);
+
+-- paychecks: listed newest-first and summed / ranged by month per user.
+CREATE INDEX IF NOT EXISTS idx_paychecks_user_month ON paychecks (user_id, paycheck_month DESC, amount);
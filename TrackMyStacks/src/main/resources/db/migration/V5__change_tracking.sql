@@ -0,0 +1,36 @@
+-- Change tracking for incremental (delta) backups.
+--
+-- updated_at is set by Hibernate on every insert and update. Existing rows
+-- get the migration time, so the first delta taken after upgrading includes
+-- them all (a safe superset) rather than silently missing older edits.
+ALTER TABLE users      ADD COLUMN IF NOT EXISTS updated_at TIMESTAMP(6);
+ALTER TABLE categories ADD COLUMN IF NOT EXISTS updated_at TIMESTAMP(6);
+ALTER TABLE expenses   ADD COLUMN IF NOT EXISTS updated_at TIMESTAMP(6);
+ALTER TABLE paychecks  ADD COLUMN IF NOT EXISTS updated_at TIMESTAMP(6);
+
+UPDATE users      SET updated_at = LOCALTIMESTAMP WHERE updated_at IS NULL;
+UPDATE categories SET updated_at = LOCALTIMESTAMP WHERE updated_at IS NULL;
+UPDATE expenses   SET updated_at = LOCALTIMESTAMP WHERE updated_at IS NULL;
+UPDATE paychecks  SET updated_at = LOCALTIMESTAMP WHERE updated_at IS NULL;
+
+ALTER TABLE users      ALTER COLUMN updated_at SET NOT NULL;
+ALTER TABLE categories ALTER COLUMN updated_at SET NOT NULL;
+ALTER TABLE expenses   ALTER COLUMN updated_at SET NOT NULL;
+ALTER TABLE paychecks  ALTER COLUMN updated_at SET NOT NULL;
+
+-- Delta exports scan the two large tables by modification time
+CREATE INDEX IF NOT EXISTS idx_expenses_updated ON expenses (updated_at);
+CREATE INDEX IF NOT EXISTS idx_paychecks_updated ON paychecks (updated_at);
+
+-- Tombstones: one row per deleted record, so a delta can carry deletes.
+-- entity_key holds the natural key restores match on (username for users,
+-- name for categories); expenses and paychecks are matched by entity_id.
+CREATE TABLE IF NOT EXISTS deleted_rows (
+    id          BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    entity_type VARCHAR(20)  NOT NULL,
+    entity_id   BIGINT       NOT NULL,
+    entity_key  VARCHAR(100),
+    deleted_at  TIMESTAMP(6) NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_deleted_rows_deleted_at ON deleted_rows (deleted_at);
@@ -0,0 +1,26 @@
+-- Expenses reference their category by id instead of repeating its name.
+--
+-- A name on an expense but not in categories (deleted while still in use,
+-- which the app allowed until now) is added back first, so every expense
+-- keeps its category. On PostgreSQL expenses is partitioned (V5_1); each
+-- statement here applies to every partition, existing and future.
+INSERT INTO categories (name, created_at, updated_at)
+SELECT DISTINCT e.category, LOCALTIMESTAMP, LOCALTIMESTAMP
+FROM expenses e
+WHERE NOT EXISTS (SELECT 1 FROM categories c WHERE c.name = e.category);
+
+ALTER TABLE expenses ADD COLUMN IF NOT EXISTS category_id BIGINT;
+
+UPDATE expenses SET category_id = (SELECT c.id FROM categories c WHERE c.name = expenses.category);
+
+ALTER TABLE expenses ALTER COLUMN category_id SET NOT NULL;
+
+ALTER TABLE expenses ADD CONSTRAINT fk_expenses_category FOREIGN KEY (category_id) REFERENCES categories (id);
+
+-- The per-category feed: both equality columns first, then its keyset order
+-- (DESC as in V3). Leading with category_id, it also serves the check for
+-- expenses before a category is deleted on PostgreSQL, which (unlike H2)
+-- doesn't index foreign keys by itself.
+CREATE INDEX IF NOT EXISTS idx_expenses_category_user_date ON expenses (category_id, user_id, expense_date DESC, id DESC);
+
+ALTER TABLE expenses DROP COLUMN category;
@@ -0,0 +1,11 @@
+-- Full search index rebuilds, for every app instance.
+--
+-- Each instance keeps its own Lucene index and catches up with the
+-- expenses table through updated_at and deleted_rows. Restores and seeding
+-- replace rows without leaving tombstones, so they add a row here instead;
+-- an instance that sees a newer id than it last rebuilt for rebuilds its
+-- index (see ExpenseSearchIndexer).
+CREATE TABLE IF NOT EXISTS search_reindex_requests (
+    id           BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    requested_at TIMESTAMP(6) NOT NULL
+);
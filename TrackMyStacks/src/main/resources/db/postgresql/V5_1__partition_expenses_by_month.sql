@@ -0,0 +1,75 @@
+-- PostgreSQL only (application-postgres.properties adds this location):
+-- turns expenses into a table range-partitioned by expense_date month, so
+-- date-range queries only touch the months they ask for (partition pruning).
+--
+-- Partitions are named expenses_YYYY_MM. Rows for a month that has no
+-- partition yet land in expenses_default; create_expense_partitions moves
+-- them out when it creates that month (ExpensePartitionMaintainer calls it
+-- at startup and nightly). A partitioned table's primary key must contain
+-- the partition column, hence (id, expense_date); ids still come from
+-- expenses_seq and stay unique on their own.
+
+-- Creates the missing monthly partitions from from_month to to_month
+-- (inclusive) and returns how many it created.
+CREATE OR REPLACE FUNCTION create_expense_partitions(from_month DATE, to_month DATE)
+RETURNS INTEGER LANGUAGE plpgsql AS $$
+DECLARE
+    month_start DATE := date_trunc('month', from_month)::date;
+    month_end   DATE;
+    part        TEXT;
+    created     INTEGER := 0;
+BEGIN
+    -- Serializes concurrent callers (several app instances starting at once)
+    PERFORM pg_advisory_xact_lock(hashtext('create_expense_partitions'));
+    WHILE month_start <= to_month LOOP
+        month_end := (month_start + INTERVAL '1 month')::date;
+        part := 'expenses_' || to_char(month_start, 'YYYY_MM');
+        IF to_regclass(part) IS NULL THEN
+            EXECUTE format('CREATE TABLE %I (LIKE expenses INCLUDING DEFAULTS INCLUDING CONSTRAINTS)', part);
+            -- ATTACH refuses while the default partition still holds rows for this month
+            IF to_regclass('expenses_default') IS NOT NULL THEN
+                EXECUTE format('WITH moved AS (DELETE FROM expenses_default WHERE expense_date >= %L AND expense_date < %L RETURNING *) '
+                        || 'INSERT INTO %I SELECT * FROM moved', month_start, month_end, part);
+            END IF;
+            -- Also creates the parent's indexes and primary key on the new partition
+            EXECUTE format('ALTER TABLE expenses ATTACH PARTITION %I FOR VALUES FROM (%L) TO (%L)', part, month_start, month_end);
+            created := created + 1;
+        END IF;
+        month_start := month_end;
+    END LOOP;
+    RETURN created;
+END
+$$;
+
+ALTER TABLE expenses RENAME TO expenses_unpartitioned;
+
+CREATE TABLE expenses (
+    id            BIGINT        NOT NULL,
+    user_id       BIGINT        NOT NULL,
+    amount        NUMERIC(10,2) NOT NULL,
+    category      VARCHAR(50)   NOT NULL,
+    description   VARCHAR(255),
+    expense_date  DATE          NOT NULL,
+    recurring     BOOLEAN       NOT NULL,
+    created_at    TIMESTAMP(6),
+    updated_at    TIMESTAMP(6)  NOT NULL
+) PARTITION BY RANGE (expense_date);
+
+CREATE TABLE expenses_default PARTITION OF expenses DEFAULT;
+
+-- One partition per month that has data, plus the current month and the next 12
+SELECT create_expense_partitions(month, month)
+FROM (SELECT DISTINCT date_trunc('month', expense_date)::date AS month FROM expenses_unpartitioned) AS months;
+SELECT create_expense_partitions(CURRENT_DATE, (CURRENT_DATE + INTERVAL '12 months')::date);
+
+INSERT INTO expenses (id, user_id, amount, category, description, expense_date, recurring, created_at, updated_at)
+SELECT id, user_id, amount, category, description, expense_date, recurring, created_at, updated_at
+FROM expenses_unpartitioned;
+
+DROP TABLE expenses_unpartitioned;
+
+-- Defined on the parent, so every partition (existing and future) gets them
+ALTER TABLE expenses ADD CONSTRAINT expenses_pkey PRIMARY KEY (id, expense_date);
+ALTER TABLE expenses ADD CONSTRAINT fk_expenses_user FOREIGN KEY (user_id) REFERENCES users (id);
+CREATE INDEX idx_expenses_user_date ON expenses (user_id, expense_date DESC, id DESC, amount);
+CREATE INDEX idx_expenses_updated ON expenses (updated_at);
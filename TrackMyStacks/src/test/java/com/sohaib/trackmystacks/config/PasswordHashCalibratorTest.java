@@ -0,0 +1,40 @@
+package com.sohaib.trackmystacks.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * The calibrated cost is the highest one within the time target, clamped to
+ * [min-strength, max-strength].
+ */
+class PasswordHashCalibratorTest {
+
+    // 50 ms per hash at cost 10: 100 ms at 11, 200 ms at 12
+    private static final double MILLIS_AT_10 = 50;
+
+    @Test
+    void picksHighestCostWithinTarget() {
+        assertThat(PasswordHashCalibrator.choose(10, 16, MILLIS_AT_10, 100)).isEqualTo(11);
+    }
+
+    @Test
+    void stopsAtMaxStrength() {
+        assertThat(PasswordHashCalibrator.choose(10, 12, 1, 1000)).isEqualTo(12);
+    }
+
+    @Test
+    void staysAtMinStrengthWhenOverTarget() {
+        assertThat(PasswordHashCalibrator.choose(10, 16, MILLIS_AT_10, 20)).isEqualTo(10);
+    }
+
+    @Test
+    void usesMinStrengthWhenBoundsMeet() {
+        assertThat(new PasswordHashCalibrator(0, 100, 10, 10).getStrength()).isEqualTo(10);
+    }
+
+    @Test
+    void usesFixedStrengthWhenConfigured() {
+        assertThat(new PasswordHashCalibrator(12, 100, 10, 16).getStrength()).isEqualTo(12);
+    }
+}
@@ -0,0 +1,60 @@
+package com.sohaib.trackmystacks.config;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.stereotype.Component;
+
+/**
+ * Records the SQL statements Hibernate prepares on the current thread while a
+ * piece of code runs, for query-count budgets (see QueryCountTest) and for
+ * explaining the SQL the repositories really issue (see QueryPlanTest).
+ *
+ * Test scope only: component scanning picks it up in every test context and
+ * registers it as Hibernate's statement inspector, so it sees everything that
+ * goes through JPA (queries, lazy loads, inserts, bulk statements) but not
+ * plain JdbcTemplate calls. Outside {@link #record(Runnable)} it only does a
+ * ThreadLocal lookup per statement. Recordings nest: an inner one's
+ * statements also count toward the outer one.
+ */
+@Component
+public class QueryCounter implements StatementInspector, HibernatePropertiesCustomizer {
+
+    private final ThreadLocal<List<String>> active = new ThreadLocal<>();
+
+    @Override
+    public void customize(Map<String, Object> hibernateProperties) {
+        hibernateProperties.put(AvailableSettings.STATEMENT_INSPECTOR, this);
+    }
+
+    @Override
+    public String inspect(String sql) {
+        List<String> statements = active.get();
+        if (statements != null) {
+            statements.add(sql);
+        }
+        return sql;
+    }
+
+    /** Runs {@code action} and returns the statements it issued, in order. */
+    public List<String> record(Runnable action) {
+        List<String> outer = active.get();
+        List<String> statements = new ArrayList<>();
+        active.set(statements);
+        try {
+            action.run();
+        } finally {
+            if (outer == null) {
+                active.remove();
+            } else {
+                outer.addAll(statements);
+                active.set(outer);
+            }
+        }
+        return statements;
+    }
+}
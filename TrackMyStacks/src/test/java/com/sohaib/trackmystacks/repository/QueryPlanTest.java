@@ -0,0 +1,218 @@
+package com.sohaib.trackmystacks.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.TreeSet;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.sohaib.trackmystacks.config.DataSeeder;
+import com.sohaib.trackmystacks.config.QueryCounter;
+import com.sohaib.trackmystacks.model.Category;
+import com.sohaib.trackmystacks.model.User;
+
+/**
+ * Query-plan regression test for the dashboard's hot queries.
+ *
+ * Each test calls a repository method, takes the SQL Hibernate generated for
+ * it (see {@link QueryCounter}) and runs EXPLAIN on that SQL with the same
+ * values bound. The expense feeds must use their composite index from
+ * V3__hot_path_indexes.sql or V6__expense_category_fk.sql, and read it in
+ * ORDER BY order so a page stops after its own rows; the dashboard's monthly
+ * comparison must use the (user_id, summary_month) key. Rewording a query,
+ * dropping the e.date upper bound or the user-leading ORDER BY, or dropping
+ * an index fails here. Bind values are listed in the order the placeholders
+ * appear in the generated SQL.
+ *
+ * Queries that read all of a user's rows (e.g. the ledger load, the
+ * paycheck list, the full export) are left out: for those the plain user_id
+ * foreign-key index is just as good a plan.
+ *
+ * On PostgreSQL, where expenses is partitioned by month, each partition has
+ * its own copy of the index (named after its columns), and one more test
+ * checks that a feed page older than the newest months doesn't read their
+ * partitions. Run against PostgreSQL with -Dspring.profiles.include=postgres and
+ * -Dspring.datasource.url pointing at a scratch database (see README "PostgreSQL").
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class QueryPlanTest {
+
+    private static final String EXPENSE_INDEX = "idx_expenses_user_date";
+    // PostgreSQL's name for idx_expenses_user_date on each partition, e.g. expenses_2026_01_user_id_expense_date_id_amount_idx
+    private static final String EXPENSE_PARTITION_INDEX = "user_id_expense_date_id_amount_idx";
+    private static final String CATEGORY_INDEX = "idx_expenses_category_user_date";
+    private static final String CATEGORY_PARTITION_INDEX = "category_id_user_id_expense_date_id_idx";
+    private static final String SUMMARY_INDEX = "uk_monthly_summaries_user_month";
+    private static final Pattern EXPENSE_PARTITION = Pattern.compile("expenses_(\\d{4})_(\\d{2})");
+    // How each database says the ORDER BY came from the index: H2 notes it, PostgreSQL has no Sort node
+    private static final String H2_INDEX_SORTED = "/* index sorted */";
+    private static final Pattern SORT_NODE = Pattern.compile("(^|->)\\s*Sort\\s+\\(", Pattern.MULTILINE);
+
+    // As ExpenseService asks for a feed page: its FEED_START bound, one row more than the default page size
+    private static final LocalDate FEED_START = LocalDate.of(9999, 12, 31);
+    private static final int PAGE_ROWS = 51;
+    private static final Pageable PAGE = PageRequest.of(0, PAGE_ROWS);
+
+    @Autowired
+    private QueryCounter queryCounter;
+
+    @Autowired
+    private DataSeeder dataSeeder;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private ExpenseRepository expenseRepository;
+
+    @Autowired
+    private MonthlySummaryRepository summaryRepository;
+
+    private boolean postgres;
+    private User user;
+    private Category category;
+    // A keyset cursor a year back: the feed after the first few pages
+    private LocalDate cursorDate;
+    private long cursorId;
+
+    // With (near) empty tables every index costs the same and the planner's pick is arbitrary
+    @BeforeAll
+    void seed() {
+        dataSeeder.run("--seed-data");
+        jdbcTemplate.execute("ANALYZE");
+        postgres = "PostgreSQL".equals(jdbcTemplate.execute(
+                (ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName()));
+
+        Long busiest = jdbcTemplate.queryForObject(
+                "SELECT user_id FROM expenses GROUP BY user_id ORDER BY COUNT(*) DESC LIMIT 1", Long.class);
+        user = userRepository.findById(busiest).orElseThrow();
+        Long mostUsed = jdbcTemplate.queryForObject("SELECT category_id FROM expenses WHERE user_id = ? "
+                + "GROUP BY category_id ORDER BY COUNT(*) DESC LIMIT 1", Long.class, user.getId());
+        category = categoryRepository.findById(mostUsed).orElseThrow();
+        cursorDate = LocalDate.now().minusYears(1);
+        cursorId = Long.MAX_VALUE;
+    }
+
+    @Test
+    void feedFirstPage() {
+        String sql = sqlOf(() -> expenseRepository.findFirstPageByUser(user, FEED_START, PAGE));
+        assertUsesIndexInOrder(expenseIndex(), sql, user.getId(), FEED_START, PAGE_ROWS);
+    }
+
+    @Test
+    void feedNextPage() {
+        String sql = sqlOf(() -> expenseRepository.findPageByUserAfter(user, cursorDate, cursorId, PAGE));
+        assertUsesIndexInOrder(expenseIndex(), sql, user.getId(), cursorDate, cursorDate, cursorId, PAGE_ROWS);
+    }
+
+    @Test
+    void categoryFeedFirstPage() {
+        String sql = sqlOf(() -> expenseRepository.findFirstPageByUserAndCategory(user, category, FEED_START, PAGE));
+        assertUsesIndexInOrder(categoryIndex(), sql, category.getId(), user.getId(), FEED_START, PAGE_ROWS);
+    }
+
+    @Test
+    void categoryFeedNextPage() {
+        String sql = sqlOf(() -> expenseRepository.findPageByUserAndCategoryAfter(
+                user, category, cursorDate, cursorId, PAGE));
+        assertUsesIndexInOrder(categoryIndex(), sql, category.getId(), user.getId(), cursorDate, cursorDate, cursorId, PAGE_ROWS);
+    }
+
+    @Test
+    void monthlySummaryWindow() {
+        LocalDate to = LocalDate.now().withDayOfMonth(1);
+        LocalDate from = to.minusMonths(11);
+        String sql = sqlOf(() -> summaryRepository.findByUserAndMonthBetween(user, from, to));
+        assertUsesIndex(SUMMARY_INDEX, sql, user.getId(), from, to);
+    }
+
+    // Partitions only exist on PostgreSQL; "expense_date <= cursor" must rule out every later month
+    @Test
+    void feedNextPageSkipsNewerPartitions() {
+        Assumptions.assumeTrue(postgres, "expenses is only partitioned on PostgreSQL");
+        String sql = sqlOf(() -> expenseRepository.findPageByUserAfter(user, cursorDate, cursorId, PAGE));
+        String plan = explain(sql, user.getId(), cursorDate, cursorDate, cursorId, PAGE_ROWS);
+
+        YearMonth last = YearMonth.from(cursorDate);
+        TreeSet<YearMonth> newer = new TreeSet<>();
+        Matcher matcher = EXPENSE_PARTITION.matcher(plan);
+        while (matcher.find()) {
+            YearMonth month = YearMonth.of(Integer.parseInt(matcher.group(1)), Integer.parseInt(matcher.group(2)));
+            if (month.isAfter(last)) {
+                newer.add(month);
+            }
+        }
+        assertThat(newer).as("partitions after %s in the plan of\n%s\n%s", last, sql, plan).isEmpty();
+    }
+
+    private String expenseIndex() {
+        return postgres ? EXPENSE_PARTITION_INDEX : EXPENSE_INDEX;
+    }
+
+    private String categoryIndex() {
+        return postgres ? CATEGORY_PARTITION_INDEX : CATEGORY_INDEX;
+    }
+
+    // The one statement the repository call issued
+    private String sqlOf(Runnable call) {
+        List<String> statements = queryCounter.record(call);
+        assertThat(statements).hasSize(1);
+        return statements.get(0);
+    }
+
+    private void assertUsesIndex(String index, String sql, Object... binds) {
+        String plan = explain(sql, binds);
+        assertThat(plan.toLowerCase(Locale.ROOT)).as("plan of\n%s\n%s", sql, plan).contains(index);
+    }
+
+    // A feed page stops after PAGE_ROWS rows only if it reads them in index order, without sorting the user's rows
+    private void assertUsesIndexInOrder(String index, String sql, Object... binds) {
+        assertUsesIndex(index, sql, binds);
+        String plan = explain(sql, binds);
+        if (postgres) {
+            assertThat(plan).as("plan of\n%s\n%s", sql, plan).doesNotContainPattern(SORT_NODE);
+        } else {
+            assertThat(plan).as("plan of\n%s\n%s", sql, plan).contains(H2_INDEX_SORTED);
+        }
+    }
+
+    private String explain(String sql, Object... binds) {
+        return String.join("\n", jdbcTemplate.queryForList("EXPLAIN " + sql, String.class, withOffset(sql, binds)));
+    }
+
+    // PostgreSQL's dialect binds the page offset (0 here) ahead of the row limit; H2's leaves a zero offset out
+    private static Object[] withOffset(String sql, Object[] binds) {
+        if (!sql.contains("offset ? rows")) {
+            return binds;
+        }
+        Object[] withOffset = Arrays.copyOf(binds, binds.length + 1);
+        withOffset[binds.length - 1] = 0;
+        withOffset[binds.length] = binds[binds.length - 1];
+        return withOffset;
+    }
+}
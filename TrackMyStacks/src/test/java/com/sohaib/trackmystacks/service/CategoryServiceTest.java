@@ -0,0 +1,60 @@
+package com.sohaib.trackmystacks.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.sohaib.trackmystacks.config.DataSeeder;
+import com.sohaib.trackmystacks.model.Category;
+import com.sohaib.trackmystacks.repository.CategoryRepository;
+import com.sohaib.trackmystacks.repository.ExpenseRepository;
+
+/**
+ * A category can only be deleted once no expense references it; the
+ * fk_expenses_category constraint from V6 would refuse it anyway.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class CategoryServiceTest {
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Autowired
+    private DataSeeder dataSeeder;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private ExpenseRepository expenseRepository;
+
+    @BeforeAll
+    void seed() {
+        dataSeeder.run("--seed-data");
+    }
+
+    @Test
+    void refusesToDeleteCategoryInUse() {
+        Category used = categoryRepository.findAll().stream()
+                .filter(expenseRepository::existsByCategory)
+                .findFirst().orElseThrow();
+
+        assertThat(categoryService.deleteCategory(used.getId())).isFalse();
+        assertThat(categoryRepository.existsById(used.getId())).isTrue();
+    }
+
+    @Test
+    void deletesUnusedCategory() {
+        Category unused = categoryService.createCategory("Unused in CategoryServiceTest");
+
+        assertThat(categoryService.deleteCategory(unused.getId())).isTrue();
+        assertThat(categoryRepository.existsById(unused.getId())).isFalse();
+    }
+}
@@ -0,0 +1,73 @@
+package com.sohaib.trackmystacks.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.sohaib.trackmystacks.model.User;
+import com.sohaib.trackmystacks.repository.UserRepository;
+
+/**
+ * Hashes saved before the {bcrypt} prefix, or at a lower cost, are replaced
+ * on the next successful login; current ones are left alone.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class CustomUserDetailsServiceTest {
+
+    private static final String USERNAME = "rehash-test-user";
+    private static final String PASSWORD = "correct horse";
+
+    @Autowired
+    private AuthenticationConfiguration authenticationConfiguration;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void removeUser() {
+        userRepository.findByUsername(USERNAME).ifPresent(userRepository::delete);
+    }
+
+    @Test
+    void upgradesLegacyHashAtLogin() throws Exception {
+        userRepository.save(new User(USERNAME, USERNAME + "@example.com",
+                new BCryptPasswordEncoder(4).encode(PASSWORD), false));
+
+        login();
+
+        // Test profile hashes at cost 4 (application-test.properties)
+        assertThat(storedHash()).startsWith("{bcrypt}$2a$04$");
+        assertThat(userRepository.findByUsername(USERNAME).orElseThrow().getPassword()).isEqualTo(storedHash());
+    }
+
+    @Test
+    void keepsCurrentHashAtLogin() throws Exception {
+        String current = "{bcrypt}" + new BCryptPasswordEncoder(4).encode(PASSWORD);
+        userRepository.save(new User(USERNAME, USERNAME + "@example.com", current, false));
+
+        login();
+
+        assertThat(storedHash()).isEqualTo(current);
+    }
+
+    private void login() throws Exception {
+        authenticationConfiguration.getAuthenticationManager()
+                .authenticate(new UsernamePasswordAuthenticationToken(USERNAME, PASSWORD));
+    }
+
+    private String storedHash() {
+        return jdbcTemplate.queryForObject("SELECT password FROM users WHERE username = ?", String.class, USERNAME);
+    }
+}
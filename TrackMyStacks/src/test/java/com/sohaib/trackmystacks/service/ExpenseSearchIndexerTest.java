@@ -0,0 +1,134 @@
+package com.sohaib.trackmystacks.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.function.BooleanSupplier;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.sohaib.trackmystacks.config.DataSeeder;
+import com.sohaib.trackmystacks.model.DeletedRow;
+import com.sohaib.trackmystacks.model.User;
+import com.sohaib.trackmystacks.repository.CategoryRepository;
+import com.sohaib.trackmystacks.repository.UserRepository;
+
+/**
+ * Changes another app instance makes reach this instance's search index
+ * through the database alone: the rows here are written with plain SQL, so
+ * none of this instance's change reports fire.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ExpenseSearchIndexerTest {
+
+    // Far above the ids expenses_seq hands out here
+    private static final long ID = 900_000_001L;
+    private static final String WORD = "zanzibarquokka";
+
+    @Autowired
+    private ExpenseSearchIndexer searchIndexer;
+
+    @Autowired
+    private DataSeeder dataSeeder;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    private User user;
+    private Long categoryId;
+
+    @BeforeAll
+    void seed() {
+        dataSeeder.run("--seed-data");
+        user = userRepository.findByUsername("seed-user-1").orElseThrow();
+        categoryId = categoryRepository.findAll().get(0).getId();
+        awaitIdle();
+    }
+
+    @AfterEach
+    void removeExpense() {
+        jdbcTemplate.update("DELETE FROM expenses WHERE id = ?", ID);
+    }
+
+    @Test
+    void picksUpRowsChangedAndDeletedElsewhere() {
+        jdbcTemplate.update("INSERT INTO expenses (id, user_id, amount, category_id, description, expense_date, "
+                + "recurring, created_at, updated_at) VALUES (?, ?, 12.34, ?, ?, ?, FALSE, ?, ?)",
+                ID, user.getId(), categoryId, WORD + " safari", LocalDate.now(), LocalDateTime.now(), LocalDateTime.now());
+        syncUntil(() -> hits(WORD) == 1);
+        assertThat(hits(WORD)).isEqualTo(1);
+
+        jdbcTemplate.update("UPDATE expenses SET description = ?, updated_at = ? WHERE id = ?",
+                "renamed safari", LocalDateTime.now(), ID);
+        syncUntil(() -> hits(WORD) == 0);
+        assertThat(hits(WORD)).isZero();
+        assertThat(hits("renamed")).isEqualTo(1);
+
+        jdbcTemplate.update("DELETE FROM expenses WHERE id = ?", ID);
+        jdbcTemplate.update("INSERT INTO deleted_rows (entity_type, entity_id, deleted_at) VALUES (?, ?, ?)",
+                DeletedRow.EXPENSE, ID, LocalDateTime.now());
+        syncUntil(() -> hits("renamed") == 0);
+        assertThat(hits("renamed")).isZero();
+    }
+
+    @Test
+    void rebuildsWhenAnotherInstanceAsksForIt() {
+        long rebuilds = rebuilds();
+        jdbcTemplate.update("INSERT INTO search_reindex_requests (requested_at) VALUES (?)", LocalDateTime.now());
+
+        syncUntil(() -> rebuilds() > rebuilds);
+        assertThat(rebuilds()).isEqualTo(rebuilds + 1);
+        assertThat(searchIndexer.getStats().get("failures")).isEqualTo(0L);
+    }
+
+    private long hits(String text) {
+        return searchIndexer.search(user.getId(), text, 0, 10).getTotal();
+    }
+
+    private long rebuilds() {
+        return (Long) searchIndexer.getStats().get("rebuilds");
+    }
+
+    // Catch-ups run on the indexer's own thread
+    private void syncUntil(BooleanSupplier condition) {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!condition.getAsBoolean() && System.currentTimeMillis() < deadline) {
+            searchIndexer.sync();
+            sleep(50);
+        }
+    }
+
+    // The seeding's rebuild, so it doesn't count as one of ours
+    private void awaitIdle() {
+        long deadline = System.currentTimeMillis() + 30_000;
+        while (Boolean.TRUE.equals(searchIndexer.getStats().get("rebuildQueued"))
+                && System.currentTimeMillis() < deadline) {
+            sleep(50);
+        }
+        syncUntil(() -> searchIndexer.getStats().get("syncedTo") != null);
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.sohaib.trackmystacks.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.sohaib.trackmystacks.config.DataSeeder;
+import com.sohaib.trackmystacks.model.Expense;
+import com.sohaib.trackmystacks.model.User;
+import com.sohaib.trackmystacks.repository.CategoryRepository;
+import com.sohaib.trackmystacks.repository.UserRepository;
+
+/**
+ * Amounts with more than two decimals are rounded to cents when they enter
+ * ExpenseService, so the row, the monthly summary and the in-memory ledger
+ * (which refuses a third decimal) all see the same value.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ExpenseServiceTest {
+
+    @Autowired
+    private ExpenseService expenseService;
+
+    @Autowired
+    private DataSeeder dataSeeder;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    private User user;
+    private String category;
+
+    @BeforeAll
+    void seed() {
+        dataSeeder.run("--seed-data");
+        user = userRepository.findByUsername("seed-user-1").orElseThrow();
+        category = categoryRepository.findAll().get(0).getName();
+    }
+
+    @Test
+    void createRoundsAmountToCents() {
+        BigDecimal before = expenseService.getTotalByUser(user);
+        Expense expense = expenseService.createExpense(
+                user, new BigDecimal("1.005"), category, "rounding", LocalDate.now(), false);
+        try {
+            assertThat(expense.getAmount()).isEqualTo(new BigDecimal("1.01"));
+            assertThat(expenseService.getTotalByUser(user)).isEqualByComparingTo(before.add(new BigDecimal("1.01")));
+        } finally {
+            expenseService.deleteExpense(expense.getId());
+        }
+        assertThat(expenseService.getTotalByUser(user)).isEqualByComparingTo(before);
+    }
+
+    @Test
+    void updateRoundsAmountToCents() {
+        BigDecimal before = expenseService.getTotalByUser(user);
+        Expense expense = expenseService.createExpense(
+                user, new BigDecimal("3.00"), category, "rounding", LocalDate.now(), false);
+        try {
+            Expense updated = expenseService.updateExpense(
+                    expense.getId(), new BigDecimal("2.4449"), category, "rounding", LocalDate.now(), false);
+            assertThat(updated.getAmount()).isEqualTo(new BigDecimal("2.44"));
+            assertThat(expenseService.getTotalByUser(user)).isEqualByComparingTo(before.add(new BigDecimal("2.44")));
+        } finally {
+            expenseService.deleteExpense(expense.getId());
+        }
+    }
+}
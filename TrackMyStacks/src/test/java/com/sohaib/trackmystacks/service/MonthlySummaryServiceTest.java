@@ -0,0 +1,123 @@
+package com.sohaib.trackmystacks.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.sohaib.trackmystacks.config.DataSeeder;
+import com.sohaib.trackmystacks.model.MonthlySummary;
+import com.sohaib.trackmystacks.model.User;
+import com.sohaib.trackmystacks.repository.UserRepository;
+
+/**
+ * The first writes of a month race to insert its monthly_summaries row. The
+ * loser must add to the winner's row instead of failing (and so rolling back)
+ * the expense or paycheck save that caused it.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class MonthlySummaryServiceTest {
+
+    // A month no seeded row falls in, so each test starts without its row
+    private static final LocalDate MONTH = LocalDate.of(2099, 1, 1);
+
+    @Autowired
+    private MonthlySummaryService monthlySummaryService;
+
+    @Autowired
+    private DataSeeder dataSeeder;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private User user;
+
+    @BeforeAll
+    void seed() {
+        dataSeeder.run("--seed-data");
+        user = userRepository.findByUsername("seed-user-1").orElseThrow();
+    }
+
+    @AfterEach
+    void removeMonth() {
+        jdbcTemplate.update("DELETE FROM monthly_summaries WHERE summary_month = ?", MONTH);
+    }
+
+    @Test
+    void firstWritesOfAMonthBothCount() throws Exception {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        CountDownLatch inserted = new CountDownLatch(1);
+        CountDownLatch secondStarted = new CountDownLatch(1);
+
+        // First writer inserts the month row and keeps its transaction open until the second is under way
+        CompletableFuture<Void> first = CompletableFuture.runAsync(() -> transaction.executeWithoutResult(status -> {
+            monthlySummaryService.recordExpense(user, MONTH.plusDays(3), new BigDecimal("10.00"));
+            inserted.countDown();
+            await(secondStarted);
+            sleep(300);
+        }));
+        // Second writer doesn't see the uncommitted row, so its update misses and its insert collides
+        CompletableFuture<Void> second = CompletableFuture.runAsync(() -> transaction.executeWithoutResult(status -> {
+            await(inserted);
+            secondStarted.countDown();
+            monthlySummaryService.recordExpense(user, MONTH.plusDays(9), new BigDecimal("2.50"));
+            monthlySummaryService.recordIncome(user, MONTH, new BigDecimal("100.00"));
+        }));
+        CompletableFuture.allOf(first, second).get(30, TimeUnit.SECONDS);
+
+        List<MonthlySummary> rows = monthlySummaryService.getSummaries(user, MONTH, MONTH);
+        assertThat(rows).hasSize(1);
+        assertThat(rows.get(0).getExpenses()).isEqualByComparingTo("12.50");
+        assertThat(rows.get(0).getIncome()).isEqualByComparingTo("100.00");
+    }
+
+    @Test
+    void firstWriteOfAMonthInsertsItsRow() {
+        monthlySummaryService.recordIncome(user, MONTH.plusDays(14), new BigDecimal("40.00"));
+        monthlySummaryService.recordExpense(user, MONTH, new BigDecimal("-5.00"));
+
+        List<MonthlySummary> rows = monthlySummaryService.getSummaries(user, MONTH, MONTH);
+        assertThat(rows).hasSize(1);
+        assertThat(rows.get(0).getIncome()).isEqualByComparingTo("40.00");
+        assertThat(rows.get(0).getExpenses()).isEqualByComparingTo("-5.00");
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertThat(latch.await(10, TimeUnit.SECONDS)).isTrue();
+        } catch (InterruptedException e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            throw new AssertionError(e);
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package com.sohaib.trackmystacks.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.sohaib.trackmystacks.config.DataSeeder;
+import com.sohaib.trackmystacks.config.QueryCounter;
+import com.sohaib.trackmystacks.model.User;
+import com.sohaib.trackmystacks.repository.UserRepository;
+
+/**
+ * Query-count budgets (N+1 guard) for the service read paths.
+ *
+ * Each test runs one path for the seeded user with the most expenses and
+ * fails if it issues more SQL statements than its budget; the message lists
+ * the most repeated statements, so a lazy association loaded once per row
+ * shows up as one SELECT repeated many times. The dashboard and second-level
+ * caches are cleared first, since a cache hit would hide an N+1. Each path
+ * runs in one read-only transaction, the way open-in-view keeps a session
+ * open for a whole request, so lazy loads run as queries instead of failing.
+ *
+ * Budgets are fixed numbers of statements, so they hold for any amount of
+ * data. The exception is the streamed export, which reads one chunk per
+ * trackmystacks.backup.export-chunk-size expenses.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class QueryCountTest {
+
+    private static final int MONTHS = 12;
+
+    @Autowired
+    private QueryCounter queryCounter;
+
+    @Autowired
+    private DataSeeder dataSeeder;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ExpenseService expenseService;
+
+    @Autowired
+    private PaycheckService paycheckService;
+
+    @Autowired
+    private DashboardService dashboardService;
+
+    @Autowired
+    private AnalyticsService analyticsService;
+
+    @Autowired
+    private BackupService backupService;
+
+    @Autowired
+    private DashboardCache dashboardCache;
+
+    @Autowired
+    private EntityCache entityCache;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${trackmystacks.backup.export-chunk-size:1000}")
+    private int exportChunkSize;
+
+    private User user;
+    private long expenseRows;
+
+    // Several users with many rows each: per-row queries only show up once there are rows to repeat them for
+    @BeforeAll
+    void seed() {
+        dataSeeder.run("--seed-data");
+        expenseRows = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM expenses", Long.class);
+        Long busiest = jdbcTemplate.queryForObject(
+                "SELECT user_id FROM expenses GROUP BY user_id ORDER BY COUNT(*) DESC LIMIT 1", Long.class);
+        user = userRepository.findById(busiest).orElseThrow();
+    }
+
+    @Test
+    void expenseFeedFirstPage() {
+        assertWithinBudget(1, () -> expenseService.getExpensePage(user, null, ExpenseService.DEFAULT_PAGE_SIZE));
+    }
+
+    @Test
+    void allExpensesOfUser() {
+        assertWithinBudget(1, () -> expenseService.getAllExpensesByUser(user));
+    }
+
+    @Test
+    void allPaychecksOfUser() {
+        assertWithinBudget(1, () -> paycheckService.getAllPaychecksByUser(user));
+    }
+
+    @Test
+    void monthlyComparison() {
+        assertWithinBudget(1, () -> paycheckService.getMonthlyComparison(user, MONTHS));
+    }
+
+    @Test
+    void coldDashboardSnapshot() {
+        assertWithinBudget(5, () -> dashboardService.getSnapshot(user, MONTHS));
+    }
+
+    @Test
+    void monthlyTotals() {
+        assertWithinBudget(1, () -> analyticsService.getMonthlyTotals(user, MONTHS));
+    }
+
+    @Test
+    void categoryTotals() {
+        assertWithinBudget(1, () -> analyticsService.getCategoryTotals(user, MONTHS));
+    }
+
+    @Test
+    void yearOverYear() {
+        assertWithinBudget(1, () -> analyticsService.getYearOverYear(user));
+    }
+
+    @Test
+    void inMemoryExport() {
+        assertWithinBudget(4, () -> backupService.exportData());
+    }
+
+    @Test
+    void streamedExport() {
+        assertWithinBudget(3 + (int) (expenseRows / exportChunkSize) + 1, () -> {
+            try {
+                backupService.exportTo(OutputStream.nullOutputStream(), BackupCodec.Format.SMILE, null);
+            } catch (IOException e) {
+                throw new AssertionError(e);
+            }
+        });
+    }
+
+    private void assertWithinBudget(int budget, Runnable action) {
+        dashboardCache.evictAll();
+        entityCache.evictAll();
+        TransactionTemplate session = new TransactionTemplate(transactionManager);
+        session.setReadOnly(true);
+        List<String> statements = queryCounter.record(() -> session.executeWithoutResult(status -> action.run()));
+        assertThat(statements.size())
+                .as(() -> statements.size() + " statements (budget " + budget + "), most repeated:\n" + repeated(statements))
+                .isLessThanOrEqualTo(budget);
+    }
+
+    // Distinct statements, most frequent first: an N+1 is the one with a count near the row count
+    private static String repeated(List<String> statements) {
+        Map<String, Integer> counts = new LinkedHashMap<>();
+        for (String sql : statements) {
+            counts.merge(sql, 1, Integer::sum);
+        }
+        return counts.entrySet().stream()
+                .sorted(Map.Entry.<String, Integer>comparingByValue().reversed())
+                .limit(5)
+                .map(e -> "  " + e.getValue() + "x  " + e.getKey())
+                .collect(Collectors.joining("\n"));
+    }
+}
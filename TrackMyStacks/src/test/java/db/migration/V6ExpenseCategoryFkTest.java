@@ -0,0 +1,90 @@
+package db.migration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+/**
+ * V6__expense_category_fk.sql on a database that has data at V5, including
+ * expenses whose category name was deleted from categories (the app allowed
+ * that before V6). Runs Flyway directly on its own in-memory H2 database.
+ */
+class V6ExpenseCategoryFkTest {
+
+    private DriverManagerDataSource dataSource;
+    private JdbcTemplate jdbc;
+
+    @BeforeEach
+    void migrateToV5() {
+        dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:v6-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", "");
+        jdbc = new JdbcTemplate(dataSource);
+        flyway("5").migrate();
+
+        jdbc.update("INSERT INTO users (username, email, password, is_admin, created_at, updated_at) "
+                + "VALUES ('alice', 'alice@example.com', 'x', FALSE, LOCALTIMESTAMP, LOCALTIMESTAMP)");
+        jdbc.update("INSERT INTO categories (name, created_at, updated_at) VALUES ('Food', LOCALTIMESTAMP, LOCALTIMESTAMP)");
+        jdbc.update("INSERT INTO categories (name, created_at, updated_at) VALUES ('Unused', LOCALTIMESTAMP, LOCALTIMESTAMP)");
+        insertExpense(1, "Food");
+        insertExpense(2, "Gym");   // "Gym" was deleted from categories while still in use
+        insertExpense(3, "Gym");
+    }
+
+    @Test
+    void orphanNamesBecomeCategoriesAndEveryExpenseKeepsItsCategory() {
+        flyway(null).migrate();
+
+        assertThat(jdbc.queryForList("SELECT name FROM categories ORDER BY name", String.class))
+                .containsExactly("Food", "Gym", "Unused");
+        List<Map<String, Object>> rows = jdbc.queryForList(
+                "SELECT e.id, c.name FROM expenses e JOIN categories c ON c.id = e.category_id ORDER BY e.id");
+        assertThat(rows).extracting(row -> row.get("NAME")).containsExactly("Food", "Gym", "Gym");
+    }
+
+    @Test
+    void categoryIdIsRequiredAndReplacesTheName() {
+        flyway(null).migrate();
+
+        assertThat(jdbc.queryForObject("SELECT IS_NULLABLE FROM INFORMATION_SCHEMA.COLUMNS "
+                + "WHERE TABLE_NAME = 'EXPENSES' AND COLUMN_NAME = 'CATEGORY_ID'", String.class)).isEqualTo("NO");
+        assertThat(jdbc.queryForObject("SELECT COUNT(*) FROM INFORMATION_SCHEMA.COLUMNS "
+                + "WHERE TABLE_NAME = 'EXPENSES' AND COLUMN_NAME = 'CATEGORY'", Integer.class)).isZero();
+        assertThatThrownBy(() -> jdbc.update("UPDATE expenses SET category_id = NULL WHERE id = 1"))
+                .isInstanceOf(DataIntegrityViolationException.class);
+    }
+
+    @Test
+    void foreignKeyGuardsBothSides() {
+        flyway(null).migrate();
+
+        assertThatThrownBy(() -> jdbc.update("UPDATE expenses SET category_id = -1 WHERE id = 1"))
+                .isInstanceOf(DataIntegrityViolationException.class);
+        assertThatThrownBy(() -> jdbc.update("DELETE FROM categories WHERE name = 'Gym'"))
+                .isInstanceOf(DataIntegrityViolationException.class);
+        assertThat(jdbc.update("DELETE FROM categories WHERE name = 'Unused'")).isEqualTo(1);
+    }
+
+    private Flyway flyway(String target) {
+        var config = Flyway.configure().dataSource(dataSource).locations("classpath:db/migration");
+        if (target != null) {
+            config.target(target);
+        }
+        return config.load();
+    }
+
+    private void insertExpense(long id, String category) {
+        jdbc.update("INSERT INTO expenses (id, user_id, amount, category, description, expense_date, recurring, "
+                + "created_at, updated_at) SELECT ?, id, 12.50, ?, 'test', DATE '2026-01-15', FALSE, "
+                + "LOCALTIMESTAMP, LOCALTIMESTAMP FROM users WHERE username = 'alice'", id, category);
+    }
+}